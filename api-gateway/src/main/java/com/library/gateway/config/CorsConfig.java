@@ -38,7 +38,8 @@ public class CorsConfig {
 
                 // Expose headers
                 corsConfig.setExposedHeaders(Arrays.asList(
-                                "Authorization", "Content-Type", "X-User-Id", "X-User-Role"));
+                                "Authorization", "Content-Type", "X-User-Id", "X-User-Role",
+                                "Idempotent-Replayed", "X-Waiting-Room-Token", "Retry-After"));
 
                 // Cache preflight for 1 hour
                 corsConfig.setMaxAge(3600L);
@@ -1,10 +1,16 @@
 package com.library.gateway.config;
 
+import com.library.gateway.filter.AdmissionControlFilter;
+import com.library.gateway.filter.AuthenticationFilter;
+import com.library.gateway.filter.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 
 @Configuration
 public class GatewayConfiguration {
@@ -18,21 +24,114 @@ public class GatewayConfiguration {
         @Value("${BOOKING_SERVICE_URL:http://localhost:8084}")
         private String bookingServiceUrl;
 
+        // Concurrency budgets of the waiting room; 0 disables it for the route
+        @Value("${gateway.admission.booking-service.max-concurrent:50}")
+        private int bookingMaxConcurrent;
+
+        @Value("${gateway.admission.booking-service.max-queue:5000}")
+        private int bookingMaxQueue;
+
+        @Value("${gateway.admission.library-service.max-concurrent:0}")
+        private int libraryMaxConcurrent;
+
+        @Value("${gateway.admission.library-service.max-queue:5000}")
+        private int libraryMaxQueue;
+
+        // Token buckets per caller: requests per second and burst; 0 disables the limit
+        @Value("${gateway.rate-limit.login.replenish-rate:0.2}")
+        private double loginReplenishRate;
+
+        @Value("${gateway.rate-limit.login.burst-capacity:10}")
+        private int loginBurstCapacity;
+
+        @Value("${gateway.rate-limit.orders.replenish-rate:1}")
+        private double ordersReplenishRate;
+
+        @Value("${gateway.rate-limit.orders.burst-capacity:10}")
+        private int ordersBurstCapacity;
+
+        @Value("${gateway.rate-limit.library-service.replenish-rate:20}")
+        private double libraryReplenishRate;
+
+        @Value("${gateway.rate-limit.library-service.burst-capacity:50}")
+        private int libraryBurstCapacity;
+
+        @Value("${gateway.rate-limit.booking-service.replenish-rate:10}")
+        private double bookingReplenishRate;
+
+        @Value("${gateway.rate-limit.booking-service.burst-capacity:30}")
+        private int bookingBurstCapacity;
+
         @Bean
-        public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+        public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                        AdmissionControlFilter admissionControlFilter, RateLimitFilter rateLimitFilter,
+                        AuthenticationFilter authenticationFilter) {
+                GatewayFilter libraryAdmission = admissionControlFilter.apply(
+                                admissionConfig("library-service", libraryMaxConcurrent, libraryMaxQueue));
+                GatewayFilter bookingAdmission = admissionControlFilter.apply(
+                                admissionConfig("booking-service", bookingMaxConcurrent, bookingMaxQueue));
+                GatewayFilter loginRateLimit = rateLimitFilter.apply(
+                                rateLimitConfig("auth-login", loginReplenishRate, loginBurstCapacity));
+                GatewayFilter ordersRateLimit = rateLimitFilter.apply(
+                                rateLimitConfig("library-orders", ordersReplenishRate, ordersBurstCapacity));
+                GatewayFilter libraryRateLimit = rateLimitFilter.apply(
+                                rateLimitConfig("library-service", libraryReplenishRate, libraryBurstCapacity));
+                GatewayFilter bookingRateLimit = rateLimitFilter.apply(
+                                rateLimitConfig("booking-service", bookingReplenishRate, bookingBurstCapacity));
+                AuthenticationFilter.Config adminOnly = new AuthenticationFilter.Config();
+                adminOnly.setRequiredRole("ADMIN");
+                GatewayFilter adminAuthentication = authenticationFilter.apply(adminOnly);
                 return builder.routes()
+                                // BCrypt on every attempt: limited per client address
+                                .route("auth-login", r -> r.path("/api/v1/auth/login", "/api/v1/auth/register")
+                                                .filters(f -> f.filter(loginRateLimit))
+                                                .uri(authServiceUrl))
                                 .route("auth-service", r -> r.path("/api/v1/auth/**", "/api/v1/users/**")
                                                 .uri(authServiceUrl))
+                                // Uploads and order writes: a tighter budget than the rest of library-service
+                                .route("library-orders", r -> r.path("/print/**", "/orders/**")
+                                                .filters(f -> f.filter(ordersRateLimit).filter(libraryAdmission))
+                                                .uri(libraryServiceUrl))
+                                // Menu edits: admins only, checked before the request reaches the service
+                                .route("library-menu-admin", r -> r.path("/menu/**")
+                                                .and().method(HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE)
+                                                .filters(f -> f.filter(adminAuthentication).filter(libraryRateLimit)
+                                                                .filter(libraryAdmission))
+                                                .uri(libraryServiceUrl))
                                 .route("library-service", r -> r.path("/api/v1/seats/**", "/api/v1/shifts/**",
-                                                "/api/v1/admin/**", "/api/lockers/**", "/menu/**", "/orders/**",
-                                                "/api/finance/**", "/print/**", "/uploads/**", "/maintenance/**",
+                                                "/api/v1/admin/**", "/api/lockers/**", "/menu/**",
+                                                "/api/finance/**", "/uploads/**", "/maintenance/**",
                                                 "/lost-found/**", "/api/v1/attendance/**")
+                                                .filters(f -> f.filter(libraryRateLimit).filter(libraryAdmission))
                                                 .uri(libraryServiceUrl))
+                                // Long-lived SSE stream: no response timeout, heartbeats keep it open
+                                .route("booking-events", r -> r.path("/api/v1/bookings/events")
+                                                .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                                                .uri(bookingServiceUrl))
                                 .route("booking-service", r -> r.path("/api/v1/bookings/**")
+                                                .filters(f -> f.filter(bookingRateLimit).filter(bookingAdmission))
                                                 .uri(bookingServiceUrl))
                                 .build();
         }
 
+        private static AdmissionControlFilter.Config admissionConfig(String routeId, int maxConcurrent,
+                        int maxQueue) {
+                AdmissionControlFilter.Config config = new AdmissionControlFilter.Config();
+                config.setRouteId(routeId);
+                config.setMaxConcurrent(maxConcurrent);
+                config.setMaxQueue(maxQueue);
+                return config;
+        }
+
+        private static RateLimitFilter.Config rateLimitConfig(String routeId, double replenishRate,
+                        int burstCapacity) {
+                RateLimitFilter.Config config = new RateLimitFilter.Config();
+                config.setRouteId(routeId);
+                config.setReplenishRate(replenishRate);
+                config.setBurstCapacity(burstCapacity);
+                return config;
+        }
+
         @Bean
         public org.springframework.boot.CommandLineRunner logRoutes(RouteLocator routeLocator) {
                 return args -> {
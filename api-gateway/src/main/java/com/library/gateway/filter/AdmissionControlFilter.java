@@ -0,0 +1,166 @@
+package com.library.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual waiting room in front of a route.
+ *
+ * Each route this filter is applied to gets its own concurrency budget. Up to
+ * {@code maxConcurrent} requests are passed through at a time; the rest get a
+ * 503 with a ticket in the {@code X-Waiting-Room-Token} header and body, their
+ * place in the queue and an estimated wait, and retry with that header. Tickets
+ * are admitted in the order they were issued, so a flash crowd reaches the
+ * service at the rate it can serve instead of all at once.
+ */
+@Component
+public class AdmissionControlFilter extends AbstractGatewayFilterFactory<AdmissionControlFilter.Config> {
+
+    public static final String TOKEN_HEADER = "X-Waiting-Room-Token";
+
+    private final MeterRegistry meterRegistry;
+    private final List<WaitingRoom> rooms = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "waiting-room-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${gateway.admission.ticket-ttl-seconds:30}")
+    private long ticketTtlSeconds;
+
+    public AdmissionControlFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        sweeper.scheduleWithFixedDelay(this::expireTickets, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getMaxConcurrent() <= 0) {
+            // No budget configured for this route
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        WaitingRoom room = new WaitingRoom(config.getMaxConcurrent(), config.getMaxQueue(),
+                TimeUnit.SECONDS.toMillis(ticketTtlSeconds));
+        rooms.add(room);
+        Gauge.builder("gateway.admission.in.flight", room, WaitingRoom::inFlight)
+                .description("Requests admitted and not yet completed")
+                .tag("route", config.getRouteId())
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.queued", room, WaitingRoom::queued)
+                .description("Tickets waiting in the queue")
+                .tag("route", config.getRouteId())
+                .register(meterRegistry);
+        Counter admitted = meterRegistry.counter("gateway.admission.decisions", "route", config.getRouteId(),
+                "outcome", "admitted");
+        Counter queued = meterRegistry.counter("gateway.admission.decisions", "route", config.getRouteId(),
+                "outcome", "queued");
+        Counter rejected = meterRegistry.counter("gateway.admission.decisions", "route", config.getRouteId(),
+                "outcome", "rejected");
+
+        return (exchange, chain) -> {
+            String token = exchange.getRequest().getHeaders().getFirst(TOKEN_HEADER);
+            WaitingRoom.Decision decision = room.enter(token, System.currentTimeMillis());
+            switch (decision.outcome) {
+                case ADMITTED:
+                    admitted.increment();
+                    long start = System.nanoTime();
+                    return Mono.defer(() -> chain.filter(exchange))
+                            .doFinally(signal -> room.exit(
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                case WAITING:
+                    queued.increment();
+                    exchange.getResponse().getHeaders().set(TOKEN_HEADER, decision.token);
+                    exchange.getResponse().getHeaders().set("Retry-After",
+                            String.valueOf(Math.min(decision.estimatedWaitSeconds, config.getMaxRetryAfterSeconds())));
+                    return respond(exchange, "{\"message\":\"You are in the waiting room\",\"token\":\""
+                            + decision.token + "\",\"position\":" + decision.position
+                            + ",\"estimatedWaitSeconds\":" + decision.estimatedWaitSeconds + "}");
+                default:
+                    rejected.increment();
+                    exchange.getResponse().getHeaders().set("Retry-After",
+                            String.valueOf(config.getMaxRetryAfterSeconds()));
+                    return respond(exchange, "{\"message\":\"Too many people are waiting, please try again shortly\"}");
+            }
+        };
+    }
+
+    private void expireTickets() {
+        long now = System.currentTimeMillis();
+        for (WaitingRoom room : rooms) {
+            room.expireTickets(now);
+        }
+    }
+
+    private static Mono<Void> respond(ServerWebExchange exchange, String body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public static class Config {
+        private String routeId = "default";
+        private int maxConcurrent;
+        private int maxQueue = 5000;
+        private long maxRetryAfterSeconds = 10;
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public long getMaxRetryAfterSeconds() {
+            return maxRetryAfterSeconds;
+        }
+
+        public void setMaxRetryAfterSeconds(long maxRetryAfterSeconds) {
+            this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package com.library.gateway.filter;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
@@ -14,9 +11,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-
 /**
  * JWT Authentication Filter for API Gateway
  * Validates JWT tokens before routing requests
@@ -24,11 +18,11 @@ import java.nio.charset.StandardCharsets;
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
-    @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationAndValidation1234567890}")
-    private String jwtSecret;
+    private final JwtVerifier jwtVerifier;
 
-    public AuthenticationFilter() {
+    public AuthenticationFilter(JwtVerifier jwtVerifier) {
         super(Config.class);
+        this.jwtVerifier = jwtVerifier;
     }
 
     @Override
@@ -55,12 +49,11 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
             try {
                 // Validate JWT token
-                SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-                Claims claims = Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseSignedClaims(token)
-                        .getPayload();
+                Claims claims = jwtVerifier.verify(token);
+                if (config.getRequiredRole() != null
+                        && !config.getRequiredRole().equals(claims.get("role", String.class))) {
+                    return onError(exchange, "Insufficient role", HttpStatus.FORBIDDEN);
+                }
 
                 // Add user info to request headers
                 ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
@@ -92,6 +85,15 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     }
 
     public static class Config {
-        // Configuration properties if needed
+        // Role the token must carry; null lets any authenticated user through
+        private String requiredRole;
+
+        public String getRequiredRole() {
+            return requiredRole;
+        }
+
+        public void setRequiredRole(String requiredRole) {
+            this.requiredRole = requiredRole;
+        }
     }
 }
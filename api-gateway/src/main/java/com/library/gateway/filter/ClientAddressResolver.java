@@ -0,0 +1,146 @@
+package com.library.gateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the address of the client behind the platform's load balancer.
+ *
+ * On Render or Railway every request reaches the gateway from the platform
+ * proxy, so the socket's remote address is the same for all callers. When
+ * that address is one of {@code gateway.trusted-proxies}, the client is the
+ * right-most {@code X-Forwarded-For} entry that is not itself a trusted
+ * proxy. Entries to the left of it were written by the client and are never
+ * used, so a caller cannot pick its own address by sending the header. When
+ * the request does not come from a trusted proxy the header is ignored.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    // IP literals only, so parsing an entry never triggers a DNS lookup
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final List<Subnet> trustedProxies = new ArrayList<>();
+
+    public ClientAddressResolver(@Value("${gateway.trusted-proxies:}") List<String> trustedProxies) {
+        for (String cidr : trustedProxies) {
+            if (!cidr.isBlank()) {
+                this.trustedProxies.add(Subnet.parse(cidr.trim()));
+            }
+        }
+    }
+
+    /**
+     * The client's IP address, or "unknown" when the request has no remote
+     * address.
+     */
+    public String resolve(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        InetAddress peer = remote != null ? remote.getAddress() : null;
+        if (peer == null) {
+            return "unknown";
+        }
+        if (!isTrusted(peer)) {
+            return peer.getHostAddress();
+        }
+        List<String> forwarded = request.getHeaders().get(X_FORWARDED_FOR);
+        if (forwarded != null) {
+            // Walk the proxy chain from the hop nearest to us back towards the client
+            for (int i = forwarded.size() - 1; i >= 0; i--) {
+                String[] hops = forwarded.get(i).split(",");
+                for (int j = hops.length - 1; j >= 0; j--) {
+                    InetAddress hop = parse(hops[j]);
+                    if (hop == null) {
+                        // Not an address: anything further left cannot be trusted either
+                        return peer.getHostAddress();
+                    }
+                    if (!isTrusted(hop)) {
+                        return hop.getHostAddress();
+                    }
+                    peer = hop;
+                }
+            }
+        }
+        // Every hop is a trusted proxy: the left-most one is the closest thing to a client
+        return peer.getHostAddress();
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        for (Subnet subnet : trustedProxies) {
+            if (subnet.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static InetAddress parse(String value) {
+        String literal = value.trim();
+        if (literal.startsWith("[") && literal.endsWith("]")) {
+            literal = literal.substring(1, literal.length() - 1);
+        }
+        if (!IPV4.matcher(literal).matches() && !IPV6.matcher(literal).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(literal);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static final class Subnet {
+        private final byte[] network;
+        private final int prefixLength;
+
+        private Subnet(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        // An address, or an address with a /prefix length
+        static Subnet parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            InetAddress address = ClientAddressResolver.parse(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (address == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy: " + cidr);
+            }
+            byte[] network = address.getAddress();
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted proxy: " + cidr);
+            }
+            return new Subnet(network, prefixLength);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (bytes[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
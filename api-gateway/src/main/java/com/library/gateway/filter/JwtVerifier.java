@@ -0,0 +1,43 @@
+package com.library.gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies JWTs with a signing key and parser built once, and remembers the
+ * claims of tokens it has already verified in a {@link VerifiedTokenCache}.
+ * A repeat request with the same token therefore costs one hash and a map
+ * lookup instead of an HMAC check and a JSON parse. Hits and misses are
+ * counted in {@code gateway.jwt.cache.requests}.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final VerifiedTokenCache cache;
+
+    public JwtVerifier(
+            @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationAndValidation1234567890}") String jwtSecret,
+            @Value("${jwt.cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.cache = new VerifiedTokenCache(maxEntries, meterRegistry, "gateway.jwt.cache");
+    }
+
+    /**
+     * The claims of a valid, unexpired token; throws a
+     * {@link io.jsonwebtoken.JwtException} otherwise.
+     */
+    public Claims verify(String token) {
+        return cache.get(token, t -> parser.parseSignedClaims(t).getPayload());
+    }
+}
@@ -0,0 +1,146 @@
+package com.library.gateway.filter;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token-bucket rate limiter, kept in gateway memory.
+ *
+ * Requests are counted per caller: the user id of a valid bearer token, or
+ * the client IP when there is none, as seen through the trusted proxies (see
+ * {@link ClientAddressResolver}). Each caller may send {@code burstCapacity}
+ * requests at once and {@code replenishRate} per second after that; beyond
+ * that the request gets a 429 with a {@code Retry-After} header and never
+ * reaches the service. Buckets are dropped once they have refilled, and the
+ * store is capped at {@code gateway.rate-limit.max-buckets}.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private final JwtVerifier jwtVerifier;
+    private final ClientAddressResolver clientAddressResolver;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucketStore store;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "rate-limit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RateLimitFilter(JwtVerifier jwtVerifier, ClientAddressResolver clientAddressResolver,
+            MeterRegistry meterRegistry, @Value("${gateway.rate-limit.max-buckets:100000}") int maxBuckets) {
+        super(Config.class);
+        this.jwtVerifier = jwtVerifier;
+        this.clientAddressResolver = clientAddressResolver;
+        this.meterRegistry = meterRegistry;
+        this.store = new TokenBucketStore(maxBuckets);
+        Gauge.builder("gateway.ratelimit.buckets", store, TokenBucketStore::size)
+                .description("Callers with a partly used token bucket")
+                .register(meterRegistry);
+        sweeper.scheduleWithFixedDelay(() -> store.evictIdle(System.nanoTime()), 10, 10, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getReplenishRate() <= 0 || config.getBurstCapacity() <= 0) {
+            // No limit configured for this route
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        String prefix = config.getRouteId() + ":";
+        Counter allowed = meterRegistry.counter("gateway.ratelimit.decisions", "route", config.getRouteId(),
+                "outcome", "allowed");
+        Counter limited = meterRegistry.counter("gateway.ratelimit.decisions", "route", config.getRouteId(),
+                "outcome", "limited");
+
+        return (exchange, chain) -> {
+            long waitMs = store.tryConsume(prefix + callerKey(exchange.getRequest()),
+                    config.getBurstCapacity(), config.getReplenishRate(), System.nanoTime());
+            if (waitMs == 0) {
+                allowed.increment();
+                return chain.filter(exchange);
+            }
+            limited.increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set("Retry-After", String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+            return respond(exchange, "{\"message\":\"Too many requests, please slow down\"}");
+        };
+    }
+
+    private String callerKey(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                String subject = jwtVerifier.verify(authHeader.substring(7)).getSubject();
+                if (subject != null) {
+                    return "user:" + subject;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Not a valid token: limit by address like any anonymous caller
+            }
+        }
+        return "ip:" + clientAddressResolver.resolve(request);
+    }
+
+    private static Mono<Void> respond(ServerWebExchange exchange, String body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public static class Config {
+        private String routeId = "default";
+        private double replenishRate;
+        private int burstCapacity;
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.gateway.filter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory token buckets, split over a fixed number of lock stripes so that
+ * requests from different clients rarely contend on the same lock.
+ *
+ * A bucket holds up to {@code capacity} tokens and gains
+ * {@code replenishRate} tokens per second; each request takes one. A bucket
+ * that has refilled to capacity behaves exactly like a missing one, so the
+ * sweep drops those, and a stripe that is still at its share of
+ * {@code maxBuckets} drops its least recently used bucket to make room.
+ */
+final class TokenBucketStore {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxBucketsPerStripe;
+
+    TokenBucketStore(int maxBuckets) {
+        this.maxBucketsPerStripe = Math.max(1, maxBuckets / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}. Returns 0 if the request
+     * may go through, otherwise how many milliseconds until a token is free.
+     */
+    long tryConsume(String key, int capacity, double replenishRate, long nowNanos) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxBucketsPerStripe) {
+                    stripe.makeRoom(nowNanos);
+                }
+                bucket = new Bucket(capacity, replenishRate, nowNanos);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.refill(nowNanos);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / bucket.replenishRate * 1000);
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled to capacity.
+     */
+    int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evicted += stripe.evictFull(nowNanos);
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        // Access order, so the eldest entry is the least recently used bucket
+        private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        private void makeRoom(long nowNanos) {
+            if (evictFull(nowNanos) == 0) {
+                Iterator<Bucket> eldest = buckets.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        private int evictFull(long nowNanos) {
+            int evicted = 0;
+            for (Iterator<Map.Entry<String, Bucket>> it = buckets.entrySet().iterator(); it.hasNext();) {
+                if (it.next().getValue().isFull(nowNanos)) {
+                    it.remove();
+                    evicted++;
+                }
+            }
+            return evicted;
+        }
+    }
+
+    private static final class Bucket {
+        private final int capacity;
+        private final double replenishRate;
+        private double tokens;
+        private long refilledAtNanos;
+
+        private Bucket(int capacity, double replenishRate, long nowNanos) {
+            this.capacity = capacity;
+            this.replenishRate = replenishRate;
+            this.tokens = capacity;
+            this.refilledAtNanos = nowNanos;
+        }
+
+        private void refill(long nowNanos) {
+            tokens = available(nowNanos);
+            refilledAtNanos = nowNanos;
+        }
+
+        private boolean isFull(long nowNanos) {
+            return available(nowNanos) >= capacity;
+        }
+
+        private double available(long nowNanos) {
+            double elapsedSeconds = (nowNanos - refilledAtNanos) / 1_000_000_000.0;
+            return Math.min(capacity, tokens + elapsedSeconds * replenishRate);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.library.gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Claims of recently verified JWTs, keyed by the SHA-256 digest of the token
+ * so raw bearer tokens are never kept. An entry is used until the token's own
+ * expiry.
+ *
+ * Entries are kept in insertion order, which for tokens of one lifetime is
+ * also expiry order: expired entries are dropped from the head, and a full
+ * cache evicts its oldest entry, both in O(1). The same class is used by
+ * api-gateway and auth-service; keep the two copies in step.
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, CachedClaims> entries; // guarded by this
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(int maxEntries, MeterRegistry meterRegistry, String metricPrefix) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter(metricPrefix + ".requests", "result", "hit");
+        this.misses = meterRegistry.counter(metricPrefix + ".requests", "result", "miss");
+        Gauge.builder(metricPrefix + ".size", this, VerifiedTokenCache::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached claims of the token, or those returned by {@code verifier},
+     * which are cached if the token has an expiry.
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            CachedClaims cached = entries.get(digest);
+            if (cached != null) {
+                if (cached.expiresAtMs > now) {
+                    hits.increment();
+                    return cached.claims;
+                }
+                entries.remove(digest);
+            }
+        }
+        misses.increment();
+
+        Claims claims = verifier.apply(token);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            synchronized (this) {
+                dropExpired(now);
+                entries.put(digest, new CachedClaims(claims, expiration.getTime()));
+            }
+        }
+        return claims;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Stops at the first live entry, so each expired entry is visited once
+    private void dropExpired(long now) {
+        Iterator<CachedClaims> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAtMs <= now) {
+            oldest.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedClaims {
+        private final Claims claims;
+        private final long expiresAtMs;
+
+        private CachedClaims(Claims claims, long expiresAtMs) {
+            this.claims = claims;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.library.gateway.filter;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Concurrency budget and FIFO waiting queue of one route.
+ *
+ * A request is let through while fewer than {@code maxConcurrent} admitted
+ * requests are in flight and nobody is queued. Otherwise it gets a ticket at
+ * the back of the queue and comes back with it; a ticket is admitted once
+ * there are at least as many free slots as tickets ahead of it and itself,
+ * so the queue drains strictly in order. Tickets that are not polled within
+ * the ticket TTL are dropped.
+ *
+ * A ticket's place is the number of queued tickets whose sequence number is
+ * not above its own, kept in a Fenwick tree over sequence numbers, so polls,
+ * admissions and expiries from anywhere in the queue cost O(log n) and
+ * departed tickets never count as being ahead. Sequence numbers start over
+ * whenever the queue empties and are compacted once they run past the tree,
+ * which takes at least {@code maxQueue} new tickets.
+ */
+final class WaitingRoom {
+
+    enum Outcome {
+        ADMITTED,
+        WAITING,
+        FULL
+    }
+
+    static final class Decision {
+        final Outcome outcome;
+        final String token;
+        final int position;
+        final long estimatedWaitSeconds;
+
+        private Decision(Outcome outcome, String token, int position, long estimatedWaitSeconds) {
+            this.outcome = outcome;
+            this.token = token;
+            this.position = position;
+            this.estimatedWaitSeconds = estimatedWaitSeconds;
+        }
+    }
+
+    private static final Decision ADMITTED = new Decision(Outcome.ADMITTED, null, 0, 0);
+    private static final Decision FULL = new Decision(Outcome.FULL, null, 0, 0);
+
+    // Weight of the latest request in the moving average of service times
+    private static final double SERVICE_TIME_ALPHA = 0.05;
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long ticketTtlMs;
+
+    // All guarded by this
+    private final LinkedHashMap<String, Ticket> queue = new LinkedHashMap<>();
+    // 1-based Fenwick tree; slot seq + 1 counts the queued ticket with that sequence number
+    private final int[] ahead;
+    private int inFlight;
+    private int nextSeq;
+    private double avgServiceMs = 200;
+
+    WaitingRoom(int maxConcurrent, int maxQueue, long ticketTtlMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.ticketTtlMs = ticketTtlMs;
+        this.ahead = new int[2 * Math.max(1, maxQueue) + 1];
+    }
+
+    /**
+     * Admits the request (the caller must then call {@link #exit}), or
+     * returns its ticket and place in the queue. {@code token} is the ticket
+     * the client was given earlier, or null.
+     */
+    synchronized Decision enter(String token, long now) {
+        Ticket ticket = token != null ? queue.get(token) : null;
+        if (ticket == null) {
+            if (queue.isEmpty() && inFlight < maxConcurrent) {
+                inFlight++;
+                return ADMITTED;
+            }
+            if (queue.size() >= maxQueue) {
+                return FULL;
+            }
+            if (nextSeq == ahead.length - 1) {
+                compact();
+            }
+            ticket = new Ticket(UUID.randomUUID().toString(), nextSeq++);
+            queue.put(ticket.token, ticket);
+            update(ticket.seq, 1);
+        }
+        ticket.lastSeenMs = now;
+
+        int position = countUpTo(ticket.seq);
+        if (position <= maxConcurrent - inFlight) {
+            remove(ticket);
+            inFlight++;
+            return ADMITTED;
+        }
+        long waitMs = (long) Math.ceil(position * avgServiceMs / maxConcurrent);
+        return new Decision(Outcome.WAITING, ticket.token, position, Math.max(1, (waitMs + 999) / 1000));
+    }
+
+    synchronized void exit(long serviceMs) {
+        inFlight--;
+        avgServiceMs += SERVICE_TIME_ALPHA * (serviceMs - avgServiceMs);
+    }
+
+    /**
+     * Drops tickets whose holders stopped polling.
+     */
+    synchronized int expireTickets(long now) {
+        int expired = 0;
+        for (Iterator<Map.Entry<String, Ticket>> it = queue.entrySet().iterator(); it.hasNext();) {
+            Ticket ticket = it.next().getValue();
+            if (now - ticket.lastSeenMs > ticketTtlMs) {
+                it.remove();
+                update(ticket.seq, -1);
+                expired++;
+            }
+        }
+        if (queue.isEmpty()) {
+            nextSeq = 0;
+        }
+        return expired;
+    }
+
+    private void remove(Ticket ticket) {
+        queue.remove(ticket.token);
+        update(ticket.seq, -1);
+        if (queue.isEmpty()) {
+            nextSeq = 0;
+        }
+    }
+
+    // Renumbers the queued tickets from 0, closing the gaps left by departed ones
+    private void compact() {
+        Arrays.fill(ahead, 0);
+        int seq = 0;
+        for (Ticket ticket : queue.values()) {
+            ticket.seq = seq++;
+            update(ticket.seq, 1);
+        }
+        nextSeq = seq;
+    }
+
+    private void update(int seq, int delta) {
+        for (int i = seq + 1; i < ahead.length; i += i & -i) {
+            ahead[i] += delta;
+        }
+    }
+
+    // Queued tickets with a sequence number up to and including seq
+    private int countUpTo(int seq) {
+        int count = 0;
+        for (int i = seq + 1; i > 0; i -= i & -i) {
+            count += ahead[i];
+        }
+        return count;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    private static final class Ticket {
+        private final String token;
+        private int seq;
+        private long lastSeenMs;
+
+        private Ticket(String token, int seq) {
+            this.token = token;
+            this.seq = seq;
+        }
+    }
+}
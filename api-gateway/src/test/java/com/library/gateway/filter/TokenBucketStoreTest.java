@@ -0,0 +1,82 @@
+package com.library.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketStoreTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstUpToCapacityThenWaitForRefill() {
+        TokenBucketStore store = new TokenBucketStore(1000);
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryConsume("client", 3, 1.0, 0)).isZero();
+        }
+
+        assertThat(store.tryConsume("client", 3, 1.0, 0)).isEqualTo(1000);
+        assertThat(store.tryConsume("client", 3, 1.0, SECOND / 2)).isEqualTo(500);
+        assertThat(store.tryConsume("client", 3, 1.0, SECOND)).isZero();
+        assertThat(store.tryConsume("client", 3, 1.0, SECOND)).isEqualTo(1000);
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        TokenBucketStore store = new TokenBucketStore(1000);
+        assertThat(store.tryConsume("a", 1, 1.0, 0)).isZero();
+
+        assertThat(store.tryConsume("a", 1, 1.0, 0)).isPositive();
+        assertThat(store.tryConsume("b", 1, 1.0, 0)).isZero();
+    }
+
+    @Test
+    void onlyRefilledBucketsAreSweptAway() {
+        TokenBucketStore store = new TokenBucketStore(1000);
+        store.tryConsume("a", 2, 1.0, 0);
+        store.tryConsume("b", 2, 1.0, SECOND / 2);
+
+        assertThat(store.evictIdle(SECOND)).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.evictIdle(2 * SECOND)).isEqualTo(1);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void fullStripeDropsItsLeastRecentlyUsedBucket() {
+        // 64 stripes, so one bucket per stripe
+        TokenBucketStore store = new TokenBucketStore(64);
+        List<String> sameStripe = keysInOneStripe(2);
+        String first = sameStripe.get(0);
+        String second = sameStripe.get(1);
+
+        store.tryConsume(first, 1, 1.0, 0);
+        assertThat(store.tryConsume(first, 1, 1.0, 0)).isPositive();
+        store.tryConsume(second, 1, 1.0, 0);
+
+        // The first client's empty bucket made room and it starts over full
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.tryConsume(first, 1, 1.0, 0)).isZero();
+    }
+
+    // Keys that TokenBucketStore spreads onto the same stripe
+    private static List<String> keysInOneStripe(int count) {
+        List<String> keys = new ArrayList<>();
+        int stripe = -1;
+        for (int i = 0; keys.size() < count; i++) {
+            String key = "client-" + i;
+            int hash = key.hashCode();
+            int index = (hash ^ (hash >>> 16)) & 63;
+            if (stripe < 0) {
+                stripe = index;
+            }
+            if (index == stripe) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,65 @@
+package com.library.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitingRoomTest {
+
+    private static final long TTL_MS = 1000;
+
+    @Test
+    void queueDrainsInOrderOnceSlotsFree() {
+        WaitingRoom room = new WaitingRoom(1, 10, TTL_MS);
+        assertThat(room.enter(null, 0).outcome).isEqualTo(WaitingRoom.Outcome.ADMITTED);
+
+        WaitingRoom.Decision first = room.enter(null, 0);
+        WaitingRoom.Decision second = room.enter(null, 0);
+        assertThat(first.position).isEqualTo(1);
+        assertThat(second.position).isEqualTo(2);
+
+        room.exit(100);
+        assertThat(room.enter(second.token, 0).outcome).isEqualTo(WaitingRoom.Outcome.WAITING);
+        assertThat(room.enter(first.token, 0).outcome).isEqualTo(WaitingRoom.Outcome.ADMITTED);
+        assertThat(room.enter(second.token, 0).position).isEqualTo(1);
+    }
+
+    @Test
+    void ticketsLeavingFromTheMiddleNoLongerCountAsAhead() {
+        WaitingRoom room = new WaitingRoom(1, 10, TTL_MS);
+        room.enter(null, 0);
+        WaitingRoom.Decision first = room.enter(null, 0);
+        WaitingRoom.Decision second = room.enter(null, 0);
+        WaitingRoom.Decision third = room.enter(null, 0);
+
+        // Only the first and third keep polling; the second expires
+        room.enter(first.token, 900);
+        room.enter(third.token, 900);
+        assertThat(room.expireTickets(1500)).isEqualTo(1);
+
+        assertThat(room.enter(third.token, 1500).position).isEqualTo(2);
+        assertThat(room.enter(second.token, 1500).position).isEqualTo(3);
+    }
+
+    @Test
+    void positionsSurviveSequenceCompaction() {
+        WaitingRoom room = new WaitingRoom(1, 3, TTL_MS);
+        room.enter(null, 0);
+        WaitingRoom.Decision waiting = room.enter(null, 0);
+
+        // Tickets behind it come and go until their numbers run past the tree
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            room.enter(null, now);
+            room.enter(waiting.token, now + TTL_MS);
+            assertThat(room.expireTickets(now + TTL_MS + 1)).isEqualTo(1);
+            now += 2 * TTL_MS;
+        }
+
+        assertThat(room.queued()).isEqualTo(1);
+        assertThat(room.enter(waiting.token, now).position).isEqualTo(1);
+        assertThat(room.enter(null, now).position).isEqualTo(2);
+        assertThat(room.enter(null, now).position).isEqualTo(3);
+        assertThat(room.enter(null, now).outcome).isEqualTo(WaitingRoom.Outcome.FULL);
+    }
+}
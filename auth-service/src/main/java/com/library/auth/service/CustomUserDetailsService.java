@@ -2,7 +2,9 @@ package com.library.auth.service;
 
 import com.library.auth.model.User;
 import com.library.auth.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,21 +12,55 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Custom UserDetailsService implementation
  * Used by Spring Security for authentication
+ *
+ * Users loaded from the database are kept in a small LRU cache. Requests
+ * carrying a JWT normally need no lookup at all: their authorities are
+ * rebuilt from the token's role claim, unless the user was changed after the
+ * token was issued, in which case the current record is loaded. Changes made
+ * through {@link UserService} evict the user; the cache is per instance.
+ *
+ * The change times are only kept in memory, so a restart forgets them. Tokens
+ * issued before this instance started are therefore treated as if the user
+ * had changed at startup: their user is loaded once and cached like any
+ * changed user, instead of being trusted from the claims.
  */
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final long tokenLifetimeMs;
+    private final Map<String, UserDetails> cache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    // username -> when the user last changed; kept as long as tokens issued before it may be alive
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    // Changes made before this were not recorded in changedAt
+    private final long startedAt = System.currentTimeMillis();
+
+    public CustomUserDetailsService(UserRepository userRepository,
+            @Value("${jwt.expiration:86400000}") long tokenLifetimeMs,
+            @Value("${auth.user-cache.max-entries:1000}") int maxEntries) {
         this.userRepository = userRepository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserDetails> eldest) {
+                return size() > maxEntries;
+            }
+        });
     }
 
+    // Used for logins: always reads the current password hash, and returns a
+    // fresh object since Spring Security erases its credentials afterwards
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -39,4 +75,50 @@ public class CustomUserDetailsService implements UserDetailsService {
                 true, // accountNonLocked
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
     }
+
+    /**
+     * The user a verified token speaks for. Built from the token's claims when
+     * the user has not changed since it was issued, otherwise loaded.
+     */
+    public UserDetails loadUserByToken(Claims claims) {
+        String username = claims.getSubject();
+        UserDetails cached = cache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        String role = claims.get("role", String.class);
+        long changed = changedAt.getOrDefault(username, startedAt);
+        Date issuedAt = claims.getIssuedAt();
+        if (role == null || issuedAt == null || issuedAt.getTime() <= changed) {
+            return loadCurrentUser(username);
+        }
+        return org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("")
+                .authorities(new SimpleGrantedAuthority("ROLE_" + role))
+                .build();
+    }
+
+    private UserDetails loadCurrentUser(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        // Requests authenticate with the token, so the password hash is not kept
+        UserDetails details = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("")
+                .disabled(!Boolean.TRUE.equals(user.getActive()))
+                .authorities(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                .build();
+        cache.put(username, details);
+        return details;
+    }
+
+    /**
+     * Forgets the cached user after a change to their record, and stops
+     * trusting the claims of tokens issued before it.
+     */
+    public void evict(String username) {
+        long now = System.currentTimeMillis();
+        changedAt.put(username, now);
+        changedAt.values().removeIf(changed -> changed < now - tokenLifetimeMs);
+        cache.remove(username);
+    }
 }
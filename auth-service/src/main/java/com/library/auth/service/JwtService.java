@@ -1,8 +1,10 @@
 package com.library.auth.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -16,16 +18,28 @@ import java.util.function.Function;
 
 /**
  * JWT Service
- * Handles JWT token generation and validation
+ * Handles JWT token generation and validation. The signing key and parser
+ * are built once; verified tokens are kept in a {@link VerifiedTokenCache}
+ * until they expire, so the several claim lookups of one request (and the
+ * requests of one session) verify the signature only once.
  */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Long jwtExpiration;
+    private final VerifiedTokenCache verified;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours default
-    private Long jwtExpiration;
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration:86400000}") Long jwtExpiration, // 24 hours default
+            @Value("${jwt.cache.max-entries:10000}") int maxCachedTokens,
+            MeterRegistry meterRegistry) {
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verified = new VerifiedTokenCache(maxCachedTokens, meterRegistry, "auth.jwt.cache");
+    }
 
     /**
      * Generate JWT token for user
@@ -41,8 +55,6 @@ public class JwtService {
      * Create JWT token with claims
      */
     private String createToken(Map<String, Object> claims, String subject) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
@@ -77,28 +89,17 @@ public class JwtService {
     /**
      * Extract all claims from token
      */
-    private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Check if token is expired
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Claims extractAllClaims(String token) {
+        return verified.get(token, t -> parser.parseSignedClaims(t).getPayload());
     }
 
     /**
      * Validate token
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date()));
     }
 
     /**
@@ -106,8 +107,7 @@ public class JwtService {
      */
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !extractAllClaims(token).getExpiration().before(new Date());
         } catch (Exception e) {
             return false;
         }
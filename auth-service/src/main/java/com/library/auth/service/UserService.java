@@ -7,6 +7,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,10 +22,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            CustomUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
     }
 
     /**
@@ -72,6 +77,7 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        evictAfterCommit(user.getUsername());
         return UserResponse.fromUser(user);
     }
 
@@ -83,6 +89,7 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        evictAfterCommit(user.getUsername());
     }
 
     /**
@@ -94,6 +101,17 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setRole(role);
         user = userRepository.save(user);
+        evictAfterCommit(user.getUsername());
         return UserResponse.fromUser(user);
     }
+
+    // Evicting before the commit would let a concurrent request cache the old row again
+    private void evictAfterCommit(String username) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsService.evict(username);
+            }
+        });
+    }
 }
@@ -1,13 +1,31 @@
 package com.library.booking.client;
 
+import com.library.booking.dto.SeatStatusUpdate;
+import com.library.booking.dto.SeatSummary;
+import com.library.booking.dto.ShiftOverlaps;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+import java.util.Map;
+
 @FeignClient(name = "library-service")
 public interface LibraryClient {
 
     @PatchMapping("/api/v1/seats/{id}/status")
     void updateSeatStatus(@PathVariable("id") Long id, @RequestParam(name = "status") String status);
+
+    @PostMapping("/api/v1/seats/status/batch")
+    Map<String, Object> updateSeatStatuses(@RequestBody List<SeatStatusUpdate> updates);
+
+    @GetMapping("/api/v1/seats")
+    List<SeatSummary> getSeats();
+
+    @GetMapping("/api/v1/shifts/overlaps")
+    ShiftOverlaps getShiftOverlaps();
 }
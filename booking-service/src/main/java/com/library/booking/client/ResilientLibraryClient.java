@@ -0,0 +1,137 @@
+package com.library.booking.client;
+
+import com.library.booking.dto.SeatStatusUpdate;
+import com.library.booking.dto.SeatSummary;
+import com.library.booking.dto.ShiftOverlaps;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * {@link LibraryClient} behind a circuit breaker, a semaphore bulkhead and a
+ * time limiter, all named {@code libraryService} in the resilience4j config.
+ *
+ * The bulkhead caps concurrent calls, the time limiter abandons a call that
+ * outlives its timeout, and the breaker counts both timeouts and errors.
+ * While the breaker is open calls fail fast with
+ * {@link CallNotPermittedException}. Each call's latency is recorded in the
+ * {@code library.client.requests} timer, tagged by method and outcome.
+ */
+@Component
+public class ResilientLibraryClient {
+
+    public static final String INSTANCE = "libraryService";
+
+    private final LibraryClient libraryClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final MeterRegistry meterRegistry;
+
+    // Runs the Feign calls so the time limiter can walk away from a hung one;
+    // sized to the bulkhead, and rejects rather than queues beyond that
+    private final ThreadPoolExecutor executor;
+
+    public ResilientLibraryClient(LibraryClient libraryClient, CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry, TimeLimiterRegistry timeLimiterRegistry,
+            MeterRegistry meterRegistry) {
+        this.libraryClient = libraryClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE);
+        this.meterRegistry = meterRegistry;
+        int threads = Math.max(1, bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+        this.executor = new ThreadPoolExecutor(0, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "library-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void updateSeatStatus(Long id, String status) {
+        call("updateSeatStatus", () -> {
+            libraryClient.updateSeatStatus(id, status);
+            return null;
+        });
+    }
+
+    public Map<String, Object> updateSeatStatuses(List<SeatStatusUpdate> updates) {
+        return call("updateSeatStatuses", () -> libraryClient.updateSeatStatuses(updates));
+    }
+
+    public List<SeatSummary> getSeats() {
+        return call("getSeats", libraryClient::getSeats);
+    }
+
+    public ShiftOverlaps getShiftOverlaps() {
+        return call("getShiftOverlaps", libraryClient::getShiftOverlaps);
+    }
+
+    public boolean isCallPermitted() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN
+                && circuitBreaker.getState() != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(String method, Supplier<T> request) {
+        Callable<T> timed = () -> timeLimiter.executeFutureSupplier(() -> executor.submit(request::get));
+        Callable<T> guarded = CircuitBreaker.decorateCallable(circuitBreaker,
+                Bulkhead.decorateCallable(bulkhead, timed));
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return guarded.call();
+        } catch (CallNotPermittedException e) {
+            outcome = "circuit_open";
+            throw e;
+        } catch (BulkheadFullException e) {
+            outcome = "bulkhead_full";
+            throw e;
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            throw new LibraryServiceException("library-service did not answer " + method + " in time", e);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } catch (Exception e) {
+            outcome = "error";
+            throw new LibraryServiceException("library-service call " + method + " failed", e);
+        } finally {
+            sample.stop(Timer.builder("library.client.requests")
+                    .description("Latency of calls from booking-service to library-service")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public static class LibraryServiceException extends RuntimeException {
+        public LibraryServiceException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
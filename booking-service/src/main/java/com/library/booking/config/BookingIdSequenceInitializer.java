@@ -0,0 +1,48 @@
+package com.library.booking.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the {@code booking_seq} id counter past the ids already in
+ * {@code bookings}, which were handed out by AUTO_INCREMENT before bookings
+ * switched to pooled ids. Hibernate hands out the block of
+ * {@link #ALLOCATION_SIZE} ids ending at the stored value, so the counter must
+ * be at least that far above the highest existing id. Runs before the web
+ * server accepts requests and is a no-op once the counter is ahead.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class BookingIdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingIdSequenceInitializer.class);
+
+    // Must match the allocationSize of the booking_seq generator on Booking
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingIdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE booking_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + ? FROM bookings)"
+                            + " WHERE next_val < (SELECT COALESCE(MAX(id), 0) + ? FROM bookings)",
+                    ALLOCATION_SIZE, ALLOCATION_SIZE);
+            if (updated > 0) {
+                log.info("Advanced booking_seq past the existing booking ids");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not align booking_seq with existing booking ids: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.library.booking.config;
+
+import com.library.booking.model.PaymentScreenshot;
+import com.library.booking.service.PaymentScreenshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves screenshots left in the legacy {@code bookings.payment_screenshot}
+ * LONGTEXT column into the binary screenshot store, a few rows per
+ * transaction. Does nothing once the column is empty or if it never existed.
+ */
+@Component
+public class PaymentScreenshotMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentScreenshotMigration.class);
+
+    private static final int CHUNK_SIZE = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentScreenshotService paymentScreenshotService;
+
+    public PaymentScreenshotMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            PaymentScreenshotService paymentScreenshotService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentScreenshotService = paymentScreenshotService;
+    }
+
+    @Override
+    public void run(String... args) {
+        int migrated = 0;
+        try {
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> migrateChunk());
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                migrated += moved;
+            }
+        } catch (DataAccessException e) {
+            log.debug("Legacy payment_screenshot column not available, skipping migration: {}", e.getMessage());
+            return;
+        } catch (TransactionException e) {
+            // Retried on the next start; the service comes up either way
+            log.warn("Payment screenshot migration stopped after {} rows: {}", migrated, e.getMessage());
+            return;
+        }
+        if (migrated > 0) {
+            log.info("Moved {} payment screenshots out of the bookings table", migrated);
+        }
+    }
+
+    private int migrateChunk() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, payment_screenshot FROM bookings WHERE payment_screenshot IS NOT NULL LIMIT ?",
+                CHUNK_SIZE);
+        for (Map<String, Object> row : rows) {
+            Long bookingId = ((Number) row.get("id")).longValue();
+            String encoded = (String) row.get("payment_screenshot");
+            Long screenshotId = null;
+            if (!encoded.isBlank()) {
+                // Parsed before anything joins the chunk's transaction, so an
+                // unreadable row cannot mark it rollback-only
+                PaymentScreenshot screenshot = null;
+                try {
+                    screenshot = PaymentScreenshotService.decode(encoded);
+                } catch (RuntimeException e) {
+                    log.warn("Dropping unreadable payment screenshot of booking {}", bookingId);
+                }
+                if (screenshot != null) {
+                    screenshotId = paymentScreenshotService.store(screenshot);
+                }
+            }
+            jdbcTemplate.update(
+                    "UPDATE bookings SET payment_screenshot_id = ?, payment_screenshot = NULL WHERE id = ?",
+                    screenshotId, bookingId);
+        }
+        return rows.size();
+    }
+}
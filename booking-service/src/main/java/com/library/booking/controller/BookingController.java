@@ -1,15 +1,35 @@
 package com.library.booking.controller;
 
+import com.library.booking.dto.BulkBookingRequest;
+import com.library.booking.dto.BulkBookingResult;
+import com.library.booking.dto.PaymentReviewOutcome;
+import com.library.booking.dto.PaymentReviewRequest;
 import com.library.booking.model.Booking;
+import com.library.booking.model.PaymentScreenshot;
+import com.library.booking.model.RevenueRollup;
+import com.library.booking.model.SeatHold;
+import com.library.booking.model.WaitlistEntry;
+import com.library.booking.service.BookingEventStream;
 import com.library.booking.service.BookingService;
+import com.library.booking.service.PaymentScreenshotService;
+import com.library.booking.service.SeatHoldService;
+import com.library.booking.service.ShiftConflicts;
+import com.library.booking.service.WaitlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/bookings")
@@ -17,9 +37,16 @@ import java.util.Map;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingEventStream bookingEventStream;
+    private final SeatHoldService seatHoldService;
+    private final WaitlistService waitlistService;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, BookingEventStream bookingEventStream,
+            SeatHoldService seatHoldService, WaitlistService waitlistService) {
         this.bookingService = bookingService;
+        this.bookingEventStream = bookingEventStream;
+        this.seatHoldService = seatHoldService;
+        this.waitlistService = waitlistService;
     }
 
     @GetMapping
@@ -28,12 +55,67 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getAllBookings());
     }
 
+    @GetMapping("/snapshot")
+    @Operation(summary = "Get all bookings plus the change feed cursor they are current as of")
+    public ResponseEntity<Map<String, Object>> getSnapshot() {
+        // Read the cursor first: anything committed after it is replayed by the feed
+        String cursor = bookingEventStream.currentCursor();
+        return ResponseEntity.ok(Map.of(
+                "cursor", cursor,
+                "bookings", bookingService.getAllBookings()));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream booking changes as server-sent events, resuming after a cursor")
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return bookingEventStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get bookings page by page (newest first), optionally filtered")
+    public ResponseEntity<?> searchBookings(
+            @RequestParam(required = false) Booking.BookingStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long seatId,
+            @RequestParam(required = false) Long shiftId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(bookingService.searchBookings(
+                    status, userId, seatId, shiftId, from, to, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get booking by ID")
     public ResponseEntity<Booking> getBookingById(@PathVariable Long id) {
         return ResponseEntity.ok(bookingService.getBookingById(id));
     }
 
+    @GetMapping("/{id}/payment-screenshot")
+    @Operation(summary = "Stream the payment screenshot of a booking")
+    public ResponseEntity<byte[]> getPaymentScreenshot(@PathVariable Long id) {
+        try {
+            PaymentScreenshot screenshot = bookingService.getPaymentScreenshot(id);
+            // Screenshots are never modified once stored, so clients may cache them.
+            // The type is checked again for rows stored before it was restricted.
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(
+                            PaymentScreenshotService.servedContentType(screenshot.getContentType())))
+                    .header("X-Content-Type-Options", "nosniff")
+                    .cacheControl(CacheControl.maxAge(Duration.ofDays(30)).cachePrivate())
+                    .body(screenshot.getData());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get bookings by user ID")
     public ResponseEntity<List<Booking>> getBookingsByUserId(@PathVariable Long userId) {
@@ -46,16 +128,100 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getPendingBookings());
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Check whether a seat is free for a shift over a date range")
+    public ResponseEntity<Map<String, Object>> checkAvailability(
+            @RequestParam Long seatId,
+            @RequestParam Long shiftId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(Map.of(
+                "seatId", seatId,
+                "shiftId", shiftId,
+                "available", bookingService.isSeatAvailable(seatId, shiftId, startDate, endDate)));
+    }
+
+    @GetMapping("/occupied-seats")
+    @Operation(summary = "Get seat IDs taken for a shift on any day of a date range")
+    public ResponseEntity<Set<Long>> getOccupiedSeats(
+            @RequestParam Long shiftId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(bookingService.getOccupiedSeatIds(shiftId, startDate, endDate));
+    }
+
     @PostMapping
     @Operation(summary = "Create new booking")
     public ResponseEntity<?> createBooking(@RequestBody Booking booking) {
         try {
             return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createBooking(booking));
+        } catch (ShiftConflicts.NotLoadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create several bookings at once, all-or-nothing or best-effort")
+    public ResponseEntity<?> createBookings(@RequestBody BulkBookingRequest request) {
+        try {
+            BulkBookingResult result = bookingService.createBookings(request);
+            if (result.getCreated().isEmpty()) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (ShiftConflicts.NotLoadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/holds")
+    @Operation(summary = "Hold a seat for a shift and date range while the user pays")
+    public ResponseEntity<?> placeHold(@RequestBody SeatHold hold) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(seatHoldService.placeHold(hold));
+        } catch (ShiftConflicts.NotLoadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @Operation(summary = "Release a seat hold")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long holdId) {
+        seatHoldService.releaseHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/waitlist")
+    @Operation(summary = "Wait for a seat or any seat of a section; the seat is held for you once it frees up")
+    public ResponseEntity<?> joinWaitlist(@RequestBody WaitlistEntry entry) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(entry));
+        } catch (ShiftConflicts.NotLoadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/waitlist/user/{userId}")
+    @Operation(summary = "Get a user's waitlist entries, with queue position or the hold they were given")
+    public ResponseEntity<List<WaitlistEntry>> getWaitlistEntries(@PathVariable Long userId) {
+        return ResponseEntity.ok(waitlistService.getEntries(userId));
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    @Operation(summary = "Leave the waitlist")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long entryId) {
+        waitlistService.leave(entryId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update booking")
     public ResponseEntity<Booking> updateBooking(@PathVariable Long id, @RequestBody Booking booking) {
@@ -71,8 +237,12 @@ public class BookingController {
 
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Cancel booking")
-    public ResponseEntity<Booking> cancelBooking(@PathVariable Long id) {
-        return ResponseEntity.ok(bookingService.cancelBooking(id));
+    public ResponseEntity<?> cancelBooking(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(bookingService.cancelBooking(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @PutMapping("/{id}/verify-payment")
@@ -103,10 +273,61 @@ public class BookingController {
         }
     }
 
+    @PutMapping("/verify-payments")
+    @Operation(summary = "Verify payments and confirm several bookings at once")
+    public ResponseEntity<?> verifyPayments(@RequestBody PaymentReviewRequest request) {
+        try {
+            List<PaymentReviewOutcome> outcomes = bookingService.verifyPayments(request.getBookingIds());
+            return ResponseEntity.ok(Map.of(
+                    "message", countSucceeded(outcomes) + " of " + outcomes.size() + " payments verified",
+                    "outcomes", outcomes));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/reject-payments")
+    @Operation(summary = "Reject payments and cancel several bookings at once")
+    public ResponseEntity<?> rejectPayments(@RequestBody PaymentReviewRequest request) {
+        try {
+            String reason = request.getReason() != null ? request.getReason() : "Payment verification failed";
+            List<PaymentReviewOutcome> outcomes = bookingService.rejectPayments(request.getBookingIds(), reason);
+            return ResponseEntity.ok(Map.of(
+                    "message", countSucceeded(outcomes) + " of " + outcomes.size() + " bookings rejected",
+                    "outcomes", outcomes));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private static long countSucceeded(List<PaymentReviewOutcome> outcomes) {
+        return outcomes.stream().filter(PaymentReviewOutcome::isSuccess).count();
+    }
+
     @GetMapping("/revenue")
-    @Operation(summary = "Get total revenue from confirmed bookings")
-    public ResponseEntity<Map<String, Object>> getRevenue() {
-        return ResponseEntity.ok(Map.of("totalRevenue", bookingService.calculateTotalRevenue()));
+    @Operation(summary = "Get revenue from confirmed bookings, optionally for a booking date range")
+    public ResponseEntity<Map<String, Object>> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate today = LocalDate.now();
+        return ResponseEntity.ok(Map.of(
+                "totalRevenue", bookingService.calculateRevenue(from, to),
+                "todayRevenue", bookingService.calculateRevenue(today, today),
+                "monthRevenue", bookingService.calculateRevenue(today.withDayOfMonth(1), today)));
+    }
+
+    @GetMapping("/revenue/daily")
+    @Operation(summary = "Get confirmed revenue per day and shift")
+    public ResponseEntity<List<RevenueRollup>> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(bookingService.getDailyRevenue(from, to));
+    }
+
+    @PostMapping("/revenue/rebuild")
+    @Operation(summary = "Rebuild revenue rollups from the bookings table")
+    public ResponseEntity<Map<String, Object>> rebuildRevenue() {
+        return ResponseEntity.ok(Map.of("cells", bookingService.rebuildRevenueRollups()));
     }
 
     @GetMapping("/health")
@@ -0,0 +1,81 @@
+package com.library.booking.dto;
+
+import com.library.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change to one booking, as published on the booking change feed.
+ * {@code booking} carries the full state after the change (null once deleted),
+ * so clients can apply events by simply replacing their copy.
+ */
+public class BookingChangeEvent {
+
+    public enum Type {
+        CREATED,
+        PAYMENT_SUBMITTED,
+        CONFIRMED,
+        CANCELLED,
+        EXPIRED,
+        UPDATED,
+        DELETED;
+
+        public static Type forStatus(Booking.BookingStatus status) {
+            switch (status) {
+                case PAYMENT_SUBMITTED:
+                    return PAYMENT_SUBMITTED;
+                case CONFIRMED:
+                    return CONFIRMED;
+                case CANCELLED:
+                    return CANCELLED;
+                case EXPIRED:
+                    return EXPIRED;
+                default:
+                    return UPDATED;
+            }
+        }
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Long bookingId;
+    private final Booking booking;
+    private final LocalDateTime occurredAt;
+
+    public BookingChangeEvent(Type type, Booking booking) {
+        this(0, type, booking.getId(), type == Type.DELETED ? null : booking, LocalDateTime.now());
+    }
+
+    private BookingChangeEvent(long sequence, Type type, Long bookingId, Booking booking,
+            LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.bookingId = bookingId;
+        this.booking = booking;
+        this.occurredAt = occurredAt;
+    }
+
+    public BookingChangeEvent withSequence(long sequence) {
+        return new BookingChangeEvent(sequence, type, bookingId, booking, occurredAt);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.library.booking.dto;
+
+import com.library.booking.model.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the columns that decide when a booking expires.
+ */
+public interface BookingDeadline {
+
+    Long getId();
+
+    Booking.BookingStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,28 @@
+package com.library.booking.dto;
+
+import com.library.booking.model.Booking;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated booking listing. {@code nextCursor} is null
+ * on the last page; otherwise pass it back as {@code cursor} to continue.
+ */
+public class BookingPage {
+
+    private final List<Booking> items;
+    private final String nextCursor;
+
+    public BookingPage(List<Booking> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Booking> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
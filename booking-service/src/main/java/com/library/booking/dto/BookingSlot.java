@@ -0,0 +1,21 @@
+package com.library.booking.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the columns needed to place a booking on the
+ * seat/shift/day grid. Loading this instead of {@code Booking} keeps the
+ * payment screenshot out of bulk reads.
+ */
+public interface BookingSlot {
+
+    Long getId();
+
+    Long getSeatId();
+
+    Long getShiftId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
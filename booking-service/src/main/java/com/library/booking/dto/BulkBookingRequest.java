@@ -0,0 +1,50 @@
+package com.library.booking.dto;
+
+import com.library.booking.model.Booking;
+
+import java.util.List;
+
+/**
+ * Several seat/shift/date bookings created in one call, e.g. a group booking
+ * for a coaching centre. With {@link Mode#ALL_OR_NOTHING} (the default) any
+ * conflict fails the whole request; with {@link Mode#BEST_EFFORT} the
+ * conflicting entries are skipped and the rest are booked.
+ *
+ * {@code paymentScreenshot}, if given, is stored once and shared by every
+ * booking that does not carry its own.
+ */
+public class BulkBookingRequest {
+
+    public enum Mode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT
+    }
+
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    private List<Booking> bookings;
+    private String paymentScreenshot;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<Booking> bookings) {
+        this.bookings = bookings;
+    }
+
+    public String getPaymentScreenshot() {
+        return paymentScreenshot;
+    }
+
+    public void setPaymentScreenshot(String paymentScreenshot) {
+        this.paymentScreenshot = paymentScreenshot;
+    }
+}
@@ -0,0 +1,66 @@
+package com.library.booking.dto;
+
+import com.library.booking.model.Booking;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk booking: the bookings created and, per rejected entry,
+ * its position in the request and why it was rejected. In all-or-nothing
+ * mode {@code created} is empty whenever {@code failures} is not.
+ */
+public class BulkBookingResult {
+
+    private final BulkBookingRequest.Mode mode;
+    private final List<Booking> created;
+    private final List<Failure> failures;
+
+    public BulkBookingResult(BulkBookingRequest.Mode mode, List<Booking> created, List<Failure> failures) {
+        this.mode = mode;
+        this.created = created;
+        this.failures = failures;
+    }
+
+    public BulkBookingRequest.Mode getMode() {
+        return mode;
+    }
+
+    public List<Booking> getCreated() {
+        return created;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public static class Failure {
+
+        private final int index;
+        private final Long seatId;
+        private final Long shiftId;
+        private final String message;
+
+        public Failure(int index, Long seatId, Long shiftId, String message) {
+            this.index = index;
+            this.seatId = seatId;
+            this.shiftId = shiftId;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getSeatId() {
+            return seatId;
+        }
+
+        public Long getShiftId() {
+            return shiftId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.library.booking.dto;
+
+import com.library.booking.model.Booking;
+
+/**
+ * What a bulk verify or reject did to one booking. {@code status} is the
+ * booking's status afterwards, or null if it does not exist.
+ */
+public class PaymentReviewOutcome {
+
+    private final Long bookingId;
+    private final boolean success;
+    private final Booking.BookingStatus status;
+    private final String message;
+
+    public PaymentReviewOutcome(Long bookingId, boolean success, Booking.BookingStatus status, String message) {
+        this.bookingId = bookingId;
+        this.success = success;
+        this.status = status;
+        this.message = message;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
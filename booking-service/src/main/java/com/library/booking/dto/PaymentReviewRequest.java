@@ -0,0 +1,29 @@
+package com.library.booking.dto;
+
+import java.util.List;
+
+/**
+ * Bookings an admin verifies or rejects in one go; {@code reason} is only
+ * used when rejecting.
+ */
+public class PaymentReviewRequest {
+
+    private List<Long> bookingIds;
+    private String reason;
+
+    public List<Long> getBookingIds() {
+        return bookingIds;
+    }
+
+    public void setBookingIds(List<Long> bookingIds) {
+        this.bookingIds = bookingIds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
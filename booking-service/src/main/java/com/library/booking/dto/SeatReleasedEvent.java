@@ -0,0 +1,24 @@
+package com.library.booking.dto;
+
+/**
+ * Published when a seat hold ends without becoming a booking, so the seat
+ * may be free again on that shift.
+ */
+public class SeatReleasedEvent {
+
+    private final Long seatId;
+    private final Long shiftId;
+
+    public SeatReleasedEvent(Long seatId, Long shiftId) {
+        this.seatId = seatId;
+        this.shiftId = shiftId;
+    }
+
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    public Long getShiftId() {
+        return shiftId;
+    }
+}
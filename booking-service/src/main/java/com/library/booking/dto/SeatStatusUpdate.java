@@ -0,0 +1,34 @@
+package com.library.booking.dto;
+
+/**
+ * One (seatId, status) pair sent to library-service's bulk seat status API.
+ */
+public class SeatStatusUpdate {
+
+    private Long seatId;
+    private String status;
+
+    public SeatStatusUpdate() {
+    }
+
+    public SeatStatusUpdate(Long seatId, String status) {
+        this.seatId = seatId;
+        this.status = status;
+    }
+
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    public void setSeatId(Long seatId) {
+        this.seatId = seatId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
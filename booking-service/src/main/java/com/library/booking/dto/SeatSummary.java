@@ -0,0 +1,26 @@
+package com.library.booking.dto;
+
+/**
+ * The parts of a library-service seat booking-service cares about.
+ */
+public class SeatSummary {
+
+    private Long id;
+    private String section;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public void setSection(String section) {
+        this.section = section;
+    }
+}
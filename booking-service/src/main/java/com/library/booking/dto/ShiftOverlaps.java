@@ -0,0 +1,38 @@
+package com.library.booking.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * For each shift, the shifts whose hours overlap it (itself included), so a
+ * booking on one of them conflicts with a booking on any other.
+ */
+public class ShiftOverlaps {
+
+    private long version;
+    private Map<Long, List<Long>> overlaps;
+
+    public ShiftOverlaps() {
+    }
+
+    public ShiftOverlaps(long version, Map<Long, List<Long>> overlaps) {
+        this.version = version;
+        this.overlaps = overlaps;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Map<Long, List<Long>> getOverlaps() {
+        return overlaps;
+    }
+
+    public void setOverlaps(Map<Long, List<Long>> overlaps) {
+        this.overlaps = overlaps;
+    }
+}
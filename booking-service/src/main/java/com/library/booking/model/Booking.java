@@ -1,5 +1,6 @@
 package com.library.booking.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
@@ -7,11 +8,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_status_id", columnList = "status, id"),
+        @Index(name = "idx_bookings_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_bookings_seat_shift_id", columnList = "seat_id, shift_id, id"),
+        @Index(name = "idx_bookings_shift_dates", columnList = "shift_id, start_date, end_date")
+})
 public class Booking {
 
+    // Pooled ids let Hibernate batch inserts (IDENTITY forces one round trip
+    // per row); BookingIdSequenceInitializer keeps the counter above old ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,15 +51,28 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status = BookingStatus.PENDING;
 
-    @Column(columnDefinition = "LONGTEXT")
+    // Stored in booking_payment_screenshots; only the reference lives on the row
+    private Long paymentScreenshotId;
+
+    // Base64 upload accepted on create, moved to the screenshot store before saving
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String paymentScreenshot;
 
+    // Seat hold to convert into this booking, see SeatHoldService
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long holdId;
+
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // When payment was verified; kept after expiry so the revenue still counts
+    private LocalDateTime confirmedAt;
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -182,6 +204,14 @@ public class Booking {
         this.updatedAt = updatedAt;
     }
 
+    public LocalDateTime getConfirmedAt() {
+        return confirmedAt;
+    }
+
+    public void setConfirmedAt(LocalDateTime confirmedAt) {
+        this.confirmedAt = confirmedAt;
+    }
+
     public String getPaymentScreenshot() {
         return paymentScreenshot;
     }
@@ -189,4 +219,20 @@ public class Booking {
     public void setPaymentScreenshot(String paymentScreenshot) {
         this.paymentScreenshot = paymentScreenshot;
     }
+
+    public Long getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(Long holdId) {
+        this.holdId = holdId;
+    }
+
+    public Long getPaymentScreenshotId() {
+        return paymentScreenshotId;
+    }
+
+    public void setPaymentScreenshotId(Long paymentScreenshotId) {
+        this.paymentScreenshotId = paymentScreenshotId;
+    }
 }
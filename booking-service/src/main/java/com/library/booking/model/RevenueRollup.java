@@ -0,0 +1,91 @@
+package com.library.booking.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Confirmed booking revenue per booking day and shift, maintained
+ * incrementally as bookings move in and out of CONFIRMED. Kept apart from
+ * library-service's rollups, which share the database.
+ */
+@Entity
+@Table(name = "booking_revenue_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_booking_revenue_rollup_day_source_shift", columnNames = { "day", "source", "shift_id" }))
+public class RevenueRollup {
+
+    public static final String SOURCE_BOOKING = "BOOKING";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = 20)
+    private String source;
+
+    @Column(nullable = false)
+    private Long shiftId;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Long entries = 0L;
+
+    // Constructors
+    public RevenueRollup() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public Long getShiftId() {
+        return shiftId;
+    }
+
+    public void setShiftId(Long shiftId) {
+        this.shiftId = shiftId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(Long entries) {
+        this.entries = entries;
+    }
+}
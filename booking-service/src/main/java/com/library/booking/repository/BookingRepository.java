@@ -1,15 +1,24 @@
 package com.library.booking.repository;
 
+import com.library.booking.dto.BookingDeadline;
+import com.library.booking.dto.BookingSlot;
 import com.library.booking.model.Booking;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     List<Booking> findByUserId(Long userId);
 
     List<Booking> findBySeatId(Long seatId);
@@ -18,11 +27,24 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByBookingDateBetween(LocalDate start, LocalDate end);
 
-    // Check if seat is already booked for a specific shift (prevents duplicate
-    // bookings)
-    Optional<Booking> findBySeatIdAndShiftIdAndStatusIn(Long seatId, Long shiftId,
-            List<Booking.BookingStatus> statuses);
-
-    @org.springframework.data.jpa.repository.Query("SELECT SUM(b.totalAmount) FROM Booking b WHERE b.status = :status")
-    java.math.BigDecimal sumTotalAmountByStatus(@org.springframework.data.repository.query.Param("status") Booking.BookingStatus status);
+    // Slim rows used to rebuild the in-memory seat occupancy index
+    List<BookingSlot> findByStatusIn(Collection<Booking.BookingStatus> statuses);
+
+    // Locks the rows a bulk payment review is about to change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids")
+    List<Booking> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // One UPDATE for a whole bulk payment review; only rows still in fromStatus
+    // change, and confirmedAt is left alone when null is passed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :toStatus, b.updatedAt = :now, "
+            + "b.confirmedAt = COALESCE(:confirmedAt, b.confirmedAt) "
+            + "WHERE b.id IN :ids AND b.status = :fromStatus")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("fromStatus") Booking.BookingStatus fromStatus,
+            @Param("toStatus") Booking.BookingStatus toStatus, @Param("now") LocalDateTime now,
+            @Param("confirmedAt") LocalDateTime confirmedAt);
+
+    // Slim rows used to load the expiry timing wheel
+    List<BookingDeadline> findDeadlinesByStatusIn(Collection<Booking.BookingStatus> statuses);
 }
@@ -0,0 +1,46 @@
+package com.library.booking.repository;
+
+import com.library.booking.model.Booking;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the paginated booking listing. Each factory returns
+ * null when its argument is null, which {@link Specification#where} and
+ * {@link Specification#and} treat as "no restriction".
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> idBefore(Long id) {
+        return id == null ? null : (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+
+    public static Specification<Booking> hasStatus(Booking.BookingStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> hasUserId(Long userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Booking> hasSeatId(Long seatId) {
+        return seatId == null ? null : (root, query, cb) -> cb.equal(root.get("seatId"), seatId);
+    }
+
+    public static Specification<Booking> hasShiftId(Long shiftId) {
+        return shiftId == null ? null : (root, query, cb) -> cb.equal(root.get("shiftId"), shiftId);
+    }
+
+    // Bookings whose [startDate, endDate] overlaps the window
+    public static Specification<Booking> endsOnOrAfter(LocalDate from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endDate"), from);
+    }
+
+    public static Specification<Booking> startsOnOrBefore(LocalDate to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), to);
+    }
+}
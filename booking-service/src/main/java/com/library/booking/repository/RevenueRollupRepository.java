@@ -0,0 +1,42 @@
+package com.library.booking.repository;
+
+import com.library.booking.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    // Atomic increment of one (day, source, shift) cell; creates it on first use
+    @Modifying
+    @Query(value = "INSERT INTO booking_revenue_rollups (day, source, shift_id, amount, entries) "
+            + "VALUES (:day, :source, :shiftId, :amount, :entries) "
+            + "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount), entries = entries + VALUES(entries)",
+            nativeQuery = true)
+    void increment(@Param("day") LocalDate day, @Param("source") String source, @Param("shiftId") Long shiftId,
+            @Param("amount") BigDecimal amount, @Param("entries") long entries);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_revenue_rollups WHERE source = 'BOOKING'", nativeQuery = true)
+    void deleteBookingRollups();
+
+    @Modifying
+    @Query(value = "INSERT INTO booking_revenue_rollups (day, source, shift_id, amount, entries) "
+            + "SELECT booking_date, 'BOOKING', shift_id, COALESCE(SUM(total_amount), 0), COUNT(*) "
+            + "FROM bookings WHERE status = 'CONFIRMED' OR (status = 'EXPIRED' AND confirmed_at IS NOT NULL) "
+            + "GROUP BY booking_date, shift_id",
+            nativeQuery = true)
+    int backfillBookingRollups();
+
+    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM RevenueRollup r WHERE r.day BETWEEN :from AND :to")
+    BigDecimal sumAmount(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<RevenueRollup> findByDayBetweenOrderByDayAscShiftIdAsc(LocalDate from, LocalDate to);
+}
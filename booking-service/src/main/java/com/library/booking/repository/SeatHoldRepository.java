@@ -0,0 +1,9 @@
+package com.library.booking.repository;
+
+import com.library.booking.model.SeatHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+}
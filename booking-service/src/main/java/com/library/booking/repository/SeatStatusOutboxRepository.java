@@ -0,0 +1,37 @@
+package com.library.booking.repository;
+
+import com.library.booking.model.SeatStatusOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SeatStatusOutboxRepository extends JpaRepository<SeatStatusOutboxEntry, Long> {
+
+    @Query("SELECT e FROM SeatStatusOutboxEntry e WHERE e.nextAttemptAt <= :now ORDER BY e.id")
+    List<SeatStatusOutboxEntry> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT MIN(e.createdAt) FROM SeatStatusOutboxEntry e")
+    LocalDateTime findOldestCreatedAt();
+
+    // Deletes the delivered entry together with any older, superseded entries for the same seat
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SeatStatusOutboxEntry e WHERE e.seatId = :seatId AND e.id <= :id")
+    int deleteDelivered(@Param("seatId") Long seatId, @Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SeatStatusOutboxEntry e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, "
+            + "e.lastError = :error WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error);
+}
@@ -0,0 +1,30 @@
+package com.library.booking.repository;
+
+import com.library.booking.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatusOrderByIdAsc(WaitlistEntry.WaitlistStatus status);
+
+    List<WaitlistEntry> findByUserIdOrderByIdDesc(Long userId);
+
+    default int deletePromotedBefore(LocalDateTime before) {
+        return deleteWithStatusPromotedBefore(WaitlistEntry.WaitlistStatus.PROMOTED, before);
+    }
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WaitlistEntry w WHERE w.status = :status AND w.promotedAt < :before")
+    int deleteWithStatusPromotedBefore(@Param("status") WaitlistEntry.WaitlistStatus status,
+            @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,237 @@
+package com.library.booking.service;
+
+import com.library.booking.dto.BookingChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change feed of committed booking events, served as server-sent events.
+ *
+ * Events are numbered per process; a cursor is {@code <epoch>-<sequence>},
+ * where the epoch changes on every restart. The most recent events are kept
+ * in a ring buffer so a client reconnecting with {@code Last-Event-ID} (or
+ * {@code since} from a snapshot) only receives what it missed. If the cursor
+ * is from another epoch or older than the buffer, the client gets a
+ * {@code reset} event and must reload its snapshot.
+ *
+ * Every subscriber has its own queue, drained by one sender task at a time,
+ * so it sees events in sequence order and a slow client only holds up itself.
+ * A client that falls more than the buffer size behind could not catch up on
+ * reconnect either; its queue is dropped and it gets a {@code reset} instead.
+ */
+@Service
+public class BookingEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingEventStream.class);
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESET = new Object();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ArrayDeque<BookingChangeEvent> buffer = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "booking-event-stream-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "booking-event-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int bufferSize;
+    private long sequence;
+
+    public BookingEventStream(@Value("${booking.events.buffer-size:2000}") int bufferSize,
+            @Value("${booking.events.heartbeat-seconds:20}") long heartbeatSeconds,
+            MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        Gauge.builder("booking.events.subscribers", subscribers, List::size)
+                .description("Open booking change feed connections")
+                .register(meterRegistry);
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangeEvent event) {
+        synchronized (buffer) {
+            BookingChangeEvent sequenced = event.withSequence(++sequence);
+            buffer.addLast(sequenced);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(sequenced);
+            }
+        }
+    }
+
+    public String currentCursor() {
+        synchronized (buffer) {
+            return epoch + "-" + sequence;
+        }
+    }
+
+    public SseEmitter subscribe(String since) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Replay and registration happen under the lock that orders new events,
+        // so no event is skipped or delivered twice between the two
+        synchronized (buffer) {
+            if (since != null && !since.isBlank()) {
+                List<BookingChangeEvent> missed = eventsAfter(since);
+                if (missed == null) {
+                    subscriber.enqueue(RESET);
+                    return emitter;
+                }
+                missed.forEach(subscriber::enqueue);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Returns null when the gap cannot be filled from the buffer
+    private List<BookingChangeEvent> eventsAfter(String cursor) {
+        int dash = cursor.lastIndexOf('-');
+        if (dash < 0 || !cursor.substring(0, dash).equals(epoch)) {
+            return null;
+        }
+        long after;
+        try {
+            after = Long.parseLong(cursor.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        synchronized (buffer) {
+            if (after > sequence) {
+                return null;
+            }
+            long oldest = buffer.isEmpty() ? sequence + 1 : buffer.peekFirst().getSequence();
+            if (after < oldest - 1) {
+                return null;
+            }
+            return buffer.stream().filter(e -> e.getSequence() > after).toList();
+        }
+    }
+
+    // An exception escaping here would cancel the schedule for good
+    private void sendHeartbeat() {
+        try {
+            subscribers.forEach(subscriber -> subscriber.enqueue(HEARTBEAT));
+        } catch (RuntimeException e) {
+            log.warn("Booking event heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // Events, HEARTBEAT or RESET waiting to be sent; guarded by this
+        private final ArrayDeque<Object> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closing;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Object item) {
+            synchronized (this) {
+                if (closing || (item == HEARTBEAT && !pending.isEmpty())) {
+                    return;
+                }
+                if (item == RESET || pending.size() >= bufferSize) {
+                    pending.clear();
+                    pending.addLast(RESET);
+                    closing = true;
+                    subscribers.remove(this);
+                } else {
+                    pending.addLast(item);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Object item;
+                synchronized (this) {
+                    item = pending.pollFirst();
+                    if (item == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (!send(item)) {
+                    synchronized (this) {
+                        closing = true;
+                        pending.clear();
+                        draining = false;
+                    }
+                    subscribers.remove(this);
+                    return;
+                }
+            }
+        }
+
+        private boolean send(Object item) {
+            try {
+                if (item == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } else if (item == RESET) {
+                    emitter.send(SseEmitter.event().name("reset").data(Map.of("cursor", currentCursor())));
+                    emitter.complete();
+                } else {
+                    BookingChangeEvent event = (BookingChangeEvent) item;
+                    emitter.send(SseEmitter.event()
+                            .id(epoch + "-" + event.getSequence())
+                            .name("booking")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.library.booking.service;
+
+import com.library.booking.model.Booking.BookingStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Decides when an active booking expires: an unpaid PENDING hold when its
+ * payment window closes, and any active booking once its endDate is over.
+ */
+@Component
+public class BookingExpiryPolicy {
+
+    private final Duration paymentWindow;
+
+    public BookingExpiryPolicy(@Value("${booking.expiry.payment-window-minutes:30}") long paymentWindowMinutes) {
+        this.paymentWindow = Duration.ofMinutes(paymentWindowMinutes);
+    }
+
+    /**
+     * Returns the moment the booking expires, or null if it never does in its
+     * current status.
+     */
+    public LocalDateTime deadlineOf(BookingStatus status, LocalDateTime createdAt, LocalDate endDate) {
+        if (!SeatOccupancyIndex.isActive(status)) {
+            return null;
+        }
+        LocalDateTime termEnd = endDate != null ? endDate.plusDays(1).atStartOfDay() : null;
+        if (status == BookingStatus.PENDING && createdAt != null) {
+            LocalDateTime paymentDeadline = createdAt.plus(paymentWindow);
+            return termEnd == null || paymentDeadline.isBefore(termEnd) ? paymentDeadline : termEnd;
+        }
+        return termEnd;
+    }
+
+    public boolean isDue(BookingStatus status, LocalDateTime createdAt, LocalDate endDate, LocalDateTime now) {
+        LocalDateTime deadline = deadlineOf(status, createdAt, endDate);
+        return deadline != null && !deadline.isAfter(now);
+    }
+}
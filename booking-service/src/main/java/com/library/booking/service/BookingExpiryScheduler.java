@@ -0,0 +1,140 @@
+package com.library.booking.service;
+
+import com.library.booking.dto.BookingChangeEvent;
+import com.library.booking.dto.BookingDeadline;
+import com.library.booking.model.Booking;
+import com.library.booking.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires bookings at their deadline without scanning the bookings table.
+ *
+ * Deadlines of all active bookings are loaded into a {@link TimingWheel} once
+ * at startup; after that the wheel is kept current from committed booking
+ * change events. A single thread advances the wheel every tick and hands due
+ * bookings to {@link BookingService#expireBookings} in batches, which
+ * re-checks each booking before moving it to EXPIRED and freeing its seat.
+ */
+@Service
+public class BookingExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingExpiryScheduler.class);
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final BookingExpiryPolicy expiryPolicy;
+    private final TimingWheel<Long> wheel;
+    private final List<Long> due = new ArrayList<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "booking-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter expiredCounter;
+    private final long tickMs;
+
+    @Value("${booking.expiry.batch-size:100}")
+    private int batchSize;
+
+    public BookingExpiryScheduler(BookingRepository bookingRepository, BookingService bookingService,
+            BookingExpiryPolicy expiryPolicy, @Value("${booking.expiry.tick-ms:1000}") long tickMs,
+            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.expiryPolicy = expiryPolicy;
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+        this.expiredCounter = meterRegistry.counter("booking.expiry.expired");
+        Gauge.builder("booking.expiry.scheduled", this, BookingExpiryScheduler::scheduledCount)
+                .description("Bookings with a pending expiry deadline")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<BookingDeadline> active = bookingRepository.findDeadlinesByStatusIn(SeatOccupancyIndex.ACTIVE_STATUSES);
+        synchronized (wheel) {
+            for (BookingDeadline booking : active) {
+                track(booking.getId(), expiryPolicy.deadlineOf(
+                        booking.getStatus(), booking.getCreatedAt(), booking.getEndDate()));
+            }
+        }
+        log.info("Expiry wheel loaded with {} deadlines ({} already due)", wheel.size(), due.size());
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangeEvent event) {
+        Booking booking = event.getBooking();
+        synchronized (wheel) {
+            if (booking == null) {
+                wheel.cancel(event.getBookingId());
+            } else {
+                track(booking.getId(), expiryPolicy.deadlineOf(
+                        booking.getStatus(), booking.getCreatedAt(), booking.getEndDate()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void track(Long bookingId, LocalDateTime deadline) {
+        if (deadline == null) {
+            wheel.cancel(bookingId);
+        } else if (!wheel.schedule(bookingId, deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            due.add(bookingId);
+        }
+    }
+
+    private void tick() {
+        List<Long> batch;
+        synchronized (wheel) {
+            due.addAll(wheel.advance(System.currentTimeMillis()));
+            if (due.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(due);
+            due.clear();
+        }
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Long> ids = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                expiredCounter.increment(bookingService.expireBookings(ids).size());
+            } catch (Exception e) {
+                // Put the batch back so the next tick retries it
+                log.warn("Failed to expire {} bookings, will retry: {}", ids.size(), e.getMessage());
+                synchronized (wheel) {
+                    due.addAll(batch.subList(from, batch.size()));
+                }
+                return;
+            }
+        }
+    }
+
+    private double scheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+}
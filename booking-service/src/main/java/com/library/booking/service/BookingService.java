@@ -1,25 +1,73 @@
 package com.library.booking.service;
 
-import com.library.booking.client.LibraryClient;
+import com.library.booking.dto.BookingChangeEvent;
+import com.library.booking.dto.BookingPage;
+import com.library.booking.dto.BulkBookingRequest;
+import com.library.booking.dto.BulkBookingResult;
+import com.library.booking.dto.PaymentReviewOutcome;
 import com.library.booking.model.Booking;
 import com.library.booking.model.Booking.BookingStatus;
+import com.library.booking.model.PaymentScreenshot;
+import com.library.booking.model.RevenueRollup;
 import com.library.booking.repository.BookingRepository;
+import com.library.booking.repository.BookingSpecifications;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Arrays;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class BookingService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_SIZE = 200;
+
     private final BookingRepository bookingRepository;
-    private final LibraryClient libraryClient;
+    private final SeatStatusOutboxService seatStatusOutbox;
+    private final SeatOccupancyIndex occupancyIndex;
+    private final SeatHoldService seatHoldService;
+    private final PaymentScreenshotService paymentScreenshotService;
+    private final RevenueRollupService revenueRollups;
+    private final BookingExpiryPolicy expiryPolicy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate requiresNew;
 
-    public BookingService(BookingRepository bookingRepository, LibraryClient libraryClient) {
+    public BookingService(BookingRepository bookingRepository, SeatStatusOutboxService seatStatusOutbox,
+            SeatOccupancyIndex occupancyIndex, SeatHoldService seatHoldService,
+            PaymentScreenshotService paymentScreenshotService,
+            RevenueRollupService revenueRollups, BookingExpiryPolicy expiryPolicy,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
-        this.libraryClient = libraryClient;
+        this.seatStatusOutbox = seatStatusOutbox;
+        this.occupancyIndex = occupancyIndex;
+        this.seatHoldService = seatHoldService;
+        this.paymentScreenshotService = paymentScreenshotService;
+        this.revenueRollups = revenueRollups;
+        this.expiryPolicy = expiryPolicy;
+        this.eventPublisher = eventPublisher;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional(readOnly = true)
@@ -43,59 +91,223 @@ public class BookingService {
         return bookingRepository.findByStatus(BookingStatus.PAYMENT_SUBMITTED);
     }
 
+    /**
+     * Keyset-paginated listing, newest first. The cursor is the opaque id of
+     * the last booking on the previous page, so each page is an index range
+     * scan rather than an OFFSET skip.
+     */
+    @Transactional(readOnly = true)
+    public BookingPage searchBookings(BookingStatus status, Long userId, Long seatId, Long shiftId,
+            LocalDate from, LocalDate to, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Specification<Booking> spec = Specification.where(BookingSpecifications.idBefore(decodeCursor(cursor)))
+                .and(BookingSpecifications.hasStatus(status))
+                .and(BookingSpecifications.hasUserId(userId))
+                .and(BookingSpecifications.hasSeatId(seatId))
+                .and(BookingSpecifications.hasShiftId(shiftId))
+                .and(BookingSpecifications.endsOnOrAfter(from))
+                .and(BookingSpecifications.startsOnOrBefore(to));
+
+        // Fetch one extra row to know whether another page follows
+        List<Booking> rows = bookingRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                .limit(pageSize + 1)
+                .all());
+
+        if (rows.size() <= pageSize) {
+            return new BookingPage(rows, null);
+        }
+        List<Booking> items = rows.subList(0, pageSize);
+        return new BookingPage(items, encodeCursor(items.get(pageSize - 1).getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public PaymentScreenshot getPaymentScreenshot(Long bookingId) {
+        Booking booking = getBookingById(bookingId);
+        if (booking.getPaymentScreenshotId() == null) {
+            throw new RuntimeException("No payment screenshot for this booking");
+        }
+        return paymentScreenshotService.getScreenshot(booking.getPaymentScreenshotId());
+    }
+
     @Transactional
     public Booking createBooking(Booking booking) {
-        // Check if seat is already booked for this shift
-        List<BookingStatus> activeStatuses = Arrays.asList(
-                BookingStatus.PENDING,
-                BookingStatus.PAYMENT_SUBMITTED,
-                BookingStatus.CONFIRMED);
+        validateDates(booking);
 
-        Optional<Booking> existingBooking = bookingRepository.findBySeatIdAndShiftIdAndStatusIn(
-                booking.getSeatId(),
-                booking.getShiftId(),
-                activeStatuses);
+        // Reserve the seat for this shift and date range in the occupancy index,
+        // or take over the user's hold on it; either is undone if the insert
+        // below rolls back
+        SeatOccupancyIndex.Claim claim = claimSeat(booking);
 
-        if (existingBooking.isPresent()) {
-            throw new RuntimeException(
-                    "Seat is already booked for this shift. Please select a different seat or shift.");
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            booking.setConfirmedAt(LocalDateTime.now());
+        }
+
+        if (booking.getPaymentScreenshot() != null && !booking.getPaymentScreenshot().isBlank()) {
+            booking.setPaymentScreenshotId(paymentScreenshotService.store(booking.getPaymentScreenshot()));
+            booking.setPaymentScreenshot(null);
         }
 
         // Keep status as provided (PAYMENT_SUBMITTED) - admin will verify
         Booking savedBooking = bookingRepository.save(booking);
+        if (claim != null) {
+            occupancyIndex.confirm(claim, savedBooking.getId());
+        }
+        revenueRollups.onStatusChange(savedBooking, null, savedBooking.getStatus());
 
         // Update seat status to BOOKED pending verification, or we can keep it
         // available until payment?
         // Usually we reserve it. Let's mark it as BOOKED to prevent others from taking
         // it.
-        updateSeatStatusSafely(booking.getSeatId(), "BOOKED");
+        seatStatusOutbox.enqueue(booking.getSeatId(), "BOOKED");
+        eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.CREATED, savedBooking));
 
         return savedBooking;
     }
 
+    /**
+     * Books several seat/shift/date combinations at once. Every entry is
+     * checked and claimed in the occupancy index first, then all accepted rows
+     * are inserted together, which Hibernate sends as JDBC batches. Seat
+     * statuses go through the outbox, whose dispatcher pushes them to
+     * library-service in one bulk call.
+     *
+     * In all-or-nothing mode a single rejected entry rolls the whole request
+     * back (releasing the claims already taken) and only the failures are
+     * returned; in best-effort mode the rejected entries are reported and the
+     * rest are booked.
+     */
+    @Transactional
+    public BulkBookingResult createBookings(BulkBookingRequest request) {
+        List<Booking> requested = request.getBookings();
+        if (requested == null || requested.isEmpty()) {
+            throw new RuntimeException("At least one booking is required");
+        }
+        if (requested.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("At most " + MAX_BULK_SIZE + " bookings can be created at once");
+        }
+        BulkBookingRequest.Mode mode = request.getMode() != null
+                ? request.getMode()
+                : BulkBookingRequest.Mode.ALL_OR_NOTHING;
+
+        List<Booking> accepted = new ArrayList<>(requested.size());
+        List<SeatOccupancyIndex.Claim> claims = new ArrayList<>(requested.size());
+        List<BulkBookingResult.Failure> failures = new ArrayList<>();
+        for (int i = 0; i < requested.size(); i++) {
+            Booking booking = requested.get(i);
+            try {
+                if (booking == null || booking.getUserId() == null || booking.getSeatId() == null
+                        || booking.getShiftId() == null) {
+                    throw new RuntimeException("userId, seatId and shiftId are required");
+                }
+                validateDates(booking);
+                // Entries of the same request conflict with each other like any other booking
+                claims.add(claimSeat(booking));
+                accepted.add(booking);
+            } catch (RuntimeException e) {
+                failures.add(new BulkBookingResult.Failure(i,
+                        booking != null ? booking.getSeatId() : null,
+                        booking != null ? booking.getShiftId() : null,
+                        e.getMessage()));
+            }
+        }
+        if (accepted.isEmpty() || (!failures.isEmpty() && mode == BulkBookingRequest.Mode.ALL_OR_NOTHING)) {
+            // Rolling back drops the claims and hold conversions made above
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return new BulkBookingResult(mode, List.of(), failures);
+        }
+
+        Long sharedScreenshotId = null;
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : accepted) {
+            if (booking.getStatus() == BookingStatus.CONFIRMED) {
+                booking.setConfirmedAt(now);
+            }
+            if (booking.getPaymentScreenshot() != null && !booking.getPaymentScreenshot().isBlank()) {
+                booking.setPaymentScreenshotId(paymentScreenshotService.store(booking.getPaymentScreenshot()));
+                booking.setPaymentScreenshot(null);
+            } else if (request.getPaymentScreenshot() != null && !request.getPaymentScreenshot().isBlank()) {
+                if (sharedScreenshotId == null) {
+                    sharedScreenshotId = paymentScreenshotService.store(request.getPaymentScreenshot());
+                }
+                booking.setPaymentScreenshotId(sharedScreenshotId);
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        Set<Long> seatIds = new LinkedHashSet<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            if (claims.get(i) != null) {
+                occupancyIndex.confirm(claims.get(i), booking.getId());
+            }
+            revenueRollups.onStatusChange(booking, null, booking.getStatus());
+            seatIds.add(booking.getSeatId());
+        }
+        seatStatusOutbox.enqueueAll(seatIds, "BOOKED");
+        for (Booking booking : saved) {
+            eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.CREATED, booking));
+        }
+        return new BulkBookingResult(mode, saved, failures);
+    }
+
+    public boolean isSeatAvailable(Long seatId, Long shiftId, LocalDate startDate, LocalDate endDate) {
+        return occupancyIndex.isAvailable(seatId, shiftId, startDate, endDate);
+    }
+
+    public Set<Long> getOccupiedSeatIds(Long shiftId, LocalDate startDate, LocalDate endDate) {
+        return occupancyIndex.getOccupiedSeatIds(shiftId, startDate, endDate);
+    }
+
     @Transactional
     public Booking updateBooking(Long id, Booking updatedBooking) {
         Booking booking = getBookingById(id);
-        if (updatedBooking.getStatus() != null)
+        BookingChangeEvent.Type type = BookingChangeEvent.Type.UPDATED;
+        if (updatedBooking.getStatus() != null && updatedBooking.getStatus() != booking.getStatus()) {
+            type = BookingChangeEvent.Type.forStatus(updatedBooking.getStatus());
+        }
+        if (updatedBooking.getStatus() != null) {
+            if (updatedBooking.getStatus() == BookingStatus.CONFIRMED && booking.getConfirmedAt() == null) {
+                booking.setConfirmedAt(LocalDateTime.now());
+            }
+            revenueRollups.onStatusChange(booking, booking.getStatus(), updatedBooking.getStatus());
+            boolean wasActive = SeatOccupancyIndex.isActive(booking.getStatus());
+            boolean isActive = SeatOccupancyIndex.isActive(updatedBooking.getStatus());
             booking.setStatus(updatedBooking.getStatus());
-        return bookingRepository.save(booking);
+            if (wasActive && !isActive) {
+                occupancyIndex.releaseAfterCommit(booking);
+            } else if (!wasActive && isActive) {
+                occupancyIndex.occupy(booking);
+            }
+        }
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangeEvent(type, saved));
+        return saved;
     }
 
     @Transactional
     public void deleteBooking(Long id) {
         Booking booking = getBookingById(id);
         // Free up the seat
-        updateSeatStatusSafely(booking.getSeatId(), "AVAILABLE");
+        releaseSeatsAfterCommit(List.of(booking));
+        revenueRollups.onStatusChange(booking, booking.getStatus(), null);
         bookingRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.DELETED, booking));
     }
 
     @Transactional
     public Booking cancelBooking(Long id) {
         Booking booking = getBookingById(id);
+        if (!SeatOccupancyIndex.isActive(booking.getStatus())) {
+            throw new RuntimeException("Booking is no longer active");
+        }
+        revenueRollups.onStatusChange(booking, booking.getStatus(), BookingStatus.CANCELLED);
         booking.setStatus(BookingStatus.CANCELLED);
         // Free up the seat
-        updateSeatStatusSafely(booking.getSeatId(), "AVAILABLE");
-        return bookingRepository.save(booking);
+        releaseSeatsAfterCommit(List.of(booking));
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.CANCELLED, saved));
+        return saved;
     }
 
     @Transactional
@@ -105,11 +317,15 @@ public class BookingService {
             throw new RuntimeException("Booking is not pending payment verification");
         }
         booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setConfirmedAt(LocalDateTime.now());
+        revenueRollups.onStatusChange(booking, BookingStatus.PAYMENT_SUBMITTED, BookingStatus.CONFIRMED);
 
         // Ensure seat is definitely booked
-        updateSeatStatusSafely(booking.getSeatId(), "BOOKED");
+        seatStatusOutbox.enqueue(booking.getSeatId(), "BOOKED");
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.CONFIRMED, saved));
+        return saved;
     }
 
     @Transactional
@@ -121,25 +337,225 @@ public class BookingService {
         booking.setStatus(BookingStatus.CANCELLED);
 
         // Free up the seat
-        updateSeatStatusSafely(booking.getSeatId(), "AVAILABLE");
+        releaseSeatsAfterCommit(List.of(booking));
 
         // Optionally store reason in a notes field if available
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.CANCELLED, saved));
+        return saved;
+    }
+
+    /**
+     * Confirms every given booking that is still awaiting payment verification.
+     * The bookings are locked and checked in one query, the status change is a
+     * single UPDATE, and the seat statuses go through the outbox as one batch.
+     * Returns one outcome per distinct id, in request order.
+     */
+    @Transactional
+    public List<PaymentReviewOutcome> verifyPayments(Collection<Long> ids) {
+        return reviewPayments(ids, BookingStatus.CONFIRMED, "Payment verified and seat confirmed");
+    }
+
+    /**
+     * Bulk counterpart of {@link #rejectPayment}; see {@link #verifyPayments}.
+     */
+    @Transactional
+    public List<PaymentReviewOutcome> rejectPayments(Collection<Long> ids, String reason) {
+        return reviewPayments(ids, BookingStatus.CANCELLED, "Booking rejected: " + reason);
     }
 
-    private void updateSeatStatusSafely(Long seatId, String status) {
+    private List<PaymentReviewOutcome> reviewPayments(Collection<Long> ids, BookingStatus newStatus,
+            String successMessage) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("At least one booking id is required");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("At most " + MAX_BULK_SIZE + " bookings can be reviewed at once");
+        }
+
+        Map<Long, Booking> found = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllByIdForUpdate(requested)) {
+            found.put(booking.getId(), booking);
+        }
+        Map<Long, PaymentReviewOutcome> outcomes = new LinkedHashMap<>();
+        List<Booking> pending = new ArrayList<>();
+        for (Long id : requested) {
+            Booking booking = found.get(id);
+            if (booking == null) {
+                outcomes.put(id, new PaymentReviewOutcome(id, false, null, "Booking not found"));
+            } else if (booking.getStatus() != BookingStatus.PAYMENT_SUBMITTED) {
+                outcomes.put(id, new PaymentReviewOutcome(id, false, booking.getStatus(),
+                        "Booking is not pending payment verification"));
+            } else {
+                outcomes.put(id, null);
+                pending.add(booking);
+            }
+        }
+        if (pending.isEmpty()) {
+            return new ArrayList<>(outcomes.values());
+        }
+
+        // The rows are locked, so every pending booking is changed; the UPDATE
+        // also detaches the loaded entities, which only feed the side effects below
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.transitionStatus(pending.stream().map(Booking::getId).toList(),
+                BookingStatus.PAYMENT_SUBMITTED, newStatus, now,
+                newStatus == BookingStatus.CONFIRMED ? now : null);
+        Set<Long> seatIds = new LinkedHashSet<>();
+        for (Booking booking : pending) {
+            booking.setStatus(newStatus);
+            booking.setUpdatedAt(now);
+            if (newStatus == BookingStatus.CONFIRMED) {
+                booking.setConfirmedAt(now);
+            }
+            seatIds.add(booking.getSeatId());
+            outcomes.put(booking.getId(), new PaymentReviewOutcome(booking.getId(), true, newStatus, successMessage));
+        }
+        revenueRollups.onStatusChange(pending, BookingStatus.PAYMENT_SUBMITTED, newStatus);
+        if (newStatus == BookingStatus.CONFIRMED) {
+            seatStatusOutbox.enqueueAll(seatIds, "BOOKED");
+        } else {
+            releaseSeatsAfterCommit(pending);
+        }
+
+        BookingChangeEvent.Type type = BookingChangeEvent.Type.forStatus(newStatus);
+        for (Booking booking : pending) {
+            eventPublisher.publishEvent(new BookingChangeEvent(type, booking));
+        }
+        return new ArrayList<>(outcomes.values());
+    }
+
+    /**
+     * Moves the given bookings to EXPIRED if they are still due, freeing their
+     * seats. Returns the bookings actually expired; ones that were paid,
+     * cancelled or extended in the meantime are left alone.
+     */
+    @Transactional
+    public List<Booking> expireBookings(Collection<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> expired = new ArrayList<>();
+        for (Booking booking : bookingRepository.findAllById(ids)) {
+            if (!expiryPolicy.isDue(booking.getStatus(), booking.getCreatedAt(), booking.getEndDate(), now)) {
+                continue;
+            }
+            BookingStatus oldStatus = booking.getStatus();
+            if (oldStatus == BookingStatus.CONFIRMED && booking.getConfirmedAt() == null) {
+                // Confirmed before confirmedAt was tracked
+                booking.setConfirmedAt(booking.getUpdatedAt());
+            }
+            revenueRollups.onStatusChange(booking, oldStatus, BookingStatus.EXPIRED);
+            booking.setStatus(BookingStatus.EXPIRED);
+            expired.add(booking);
+        }
+        releaseSeatsAfterCommit(expired);
+        bookingRepository.saveAll(expired);
+        for (Booking booking : expired) {
+            eventPublisher.publishEvent(new BookingChangeEvent(BookingChangeEvent.Type.EXPIRED, booking));
+        }
+        return expired;
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("b:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
         try {
-            System.out.println("Attempting to update seat " + seatId + " status to " + status);
-            libraryClient.updateSeatStatus(seatId, status);
-            System.out.println("Successfully updated seat " + seatId + " status to " + status);
-        } catch (Exception e) {
-            System.err.println("Failed to update seat status. SeatId: " + seatId + ", Status: " + status);
-            e.printStackTrace();
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("b:")) {
+                throw new IllegalArgumentException();
+            }
+            return Long.parseLong(decoded.substring(2));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
         }
     }
 
-    @Transactional(readOnly = true)
-    public java.math.BigDecimal calculateTotalRevenue() {
-        return bookingRepository.sumTotalAmountByStatus(BookingStatus.CONFIRMED);
+    /**
+     * Claims the booking's seat, shift and dates in the occupancy index, or
+     * converts the user's hold on them. Returns null for bookings that do not
+     * occupy a seat (e.g. created as cancelled).
+     */
+    private SeatOccupancyIndex.Claim claimSeat(Booking booking) {
+        if (booking.getHoldId() != null) {
+            if (!SeatOccupancyIndex.isActive(booking.getStatus())) {
+                throw new RuntimeException("A held seat can only be converted into an active booking");
+            }
+            return seatHoldService.convert(booking.getHoldId(), booking);
+        }
+        if (!SeatOccupancyIndex.isActive(booking.getStatus())) {
+            return null;
+        }
+        SeatOccupancyIndex.Claim claim = occupancyIndex.claim(
+                booking.getSeatId(),
+                booking.getShiftId(),
+                booking.getStartDate(),
+                booking.getEndDate());
+        if (claim == null) {
+            throw new RuntimeException(
+                    "Seat is already booked for this shift. Please select a different seat or shift.");
+        }
+        return claim;
+    }
+
+    // Frees the bookings' seats once the transaction commits. AVAILABLE is only
+    // sent for seats no other booking or hold still covers, checked after the
+    // index release has run; the outbox write needs its own transaction by then
+    private void releaseSeatsAfterCommit(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Set<Long> seatIds = new LinkedHashSet<>();
+        for (Booking booking : bookings) {
+            occupancyIndex.releaseAfterCommit(booking);
+            seatIds.add(booking.getSeatId());
+        }
+        Runnable markAvailable = () -> {
+            seatIds.removeIf(seatId -> occupancyIndex.hasOtherClaims(seatId, null));
+            if (!seatIds.isEmpty()) {
+                requiresNew.executeWithoutResult(status -> seatStatusOutbox.enqueueAll(seatIds, "AVAILABLE"));
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markAvailable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markAvailable.run();
+            }
+        });
+    }
+
+    private void validateDates(Booking booking) {
+        if (booking.getStartDate() == null || booking.getEndDate() == null) {
+            throw new RuntimeException("Booking start date and end date are required");
+        }
+        if (booking.getEndDate().isBefore(booking.getStartDate())) {
+            throw new RuntimeException("Booking end date cannot be before start date");
+        }
+    }
+
+    /**
+     * Confirmed revenue for bookings dated within [from, to]; either bound may
+     * be null for an open range. Served from the daily rollups.
+     */
+    public BigDecimal calculateRevenue(LocalDate from, LocalDate to) {
+        return revenueRollups.getRevenue(from, to);
+    }
+
+    public List<RevenueRollup> getDailyRevenue(LocalDate from, LocalDate to) {
+        return revenueRollups.getDailyRevenue(from, to);
+    }
+
+    public int rebuildRevenueRollups() {
+        return revenueRollups.rebuild();
     }
 }
@@ -0,0 +1,141 @@
+package com.library.booking.service;
+
+import com.library.booking.model.IdempotencyRecord;
+import com.library.booking.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the responses of requests sent with an Idempotency-Key header.
+ *
+ * A request claims its key by inserting a pending row into
+ * {@code idempotency_records}; the unique (scope, key) constraint lets only
+ * one request per key run at a time, across all instances. The row then
+ * either receives the response or is deleted again if the request failed.
+ * Recent responses are also kept in a bounded LRU map. Responses expire after
+ * {@code idempotency.ttl-hours}; a pending row left behind by a crashed
+ * instance is taken over after {@code idempotency.pending-timeout-seconds}.
+ */
+@Service
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final long ttlHours;
+    private final long pendingTimeoutSeconds;
+    private final int maxCachedBodyBytes;
+    private final Map<String, IdempotencyRecord> cache;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${idempotency.pending-timeout-seconds:300}") long pendingTimeoutSeconds,
+            @Value("${idempotency.cache-size:1000}") int cacheSize,
+            @Value("${idempotency.max-cached-body-bytes:65536}") int maxCachedBodyBytes) {
+        this.repository = repository;
+        this.ttlHours = ttlHours;
+        this.pendingTimeoutSeconds = pendingTimeoutSeconds;
+        this.maxCachedBodyBytes = maxCachedBodyBytes;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * The record for this key, pending or completed, or null if there is none
+     * (or it has expired).
+     */
+    public IdempotencyRecord find(String scope, String key) {
+        String cacheKey = scope + '\n' + key;
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (cache) {
+            IdempotencyRecord cached = cache.get(cacheKey);
+            if (cached != null) {
+                if (cached.getExpiresAt().isAfter(now)) {
+                    return cached;
+                }
+                cache.remove(cacheKey);
+            }
+        }
+        IdempotencyRecord stored = repository.findByScopeAndIdempotencyKey(scope, key)
+                .filter(record -> record.getExpiresAt().isAfter(now))
+                .orElse(null);
+        if (stored != null && !stored.isPending()) {
+            remember(cacheKey, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Claims the key for a new request by inserting a pending record. Returns
+     * null if another request, here or on another instance, holds the key.
+     */
+    public IdempotencyRecord begin(String scope, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return repository.save(new IdempotencyRecord(scope, key, requestHash,
+                        now.plusSeconds(pendingTimeoutSeconds)));
+            } catch (DataIntegrityViolationException e) {
+                // Taken, unless only by an expired record no one has purged yet
+                if (attempt > 0 || repository.deleteIfExpired(scope, key, now) == 0) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the response of a successful request on its pending record.
+     */
+    public void complete(IdempotencyRecord pending, int statusCode, String contentType, byte[] body) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(ttlHours);
+        if (repository.complete(pending.getId(), statusCode, contentType, body, expiresAt) == 0) {
+            // Ran past the pending timeout and another request took the key over
+            log.warn("Idempotency key {} for {} was taken over before the request completed",
+                    pending.getIdempotencyKey(), pending.getScope());
+            return;
+        }
+        pending.setStatusCode(statusCode);
+        pending.setContentType(contentType);
+        pending.setBody(body);
+        pending.setExpiresAt(expiresAt);
+        remember(pending.getScope() + '\n' + pending.getIdempotencyKey(), pending);
+    }
+
+    /**
+     * Releases the key of a request that failed, so that it may be retried.
+     */
+    public void abandon(IdempotencyRecord pending) {
+        repository.deleteById(pending.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private void remember(String cacheKey, IdempotencyRecord record) {
+        // Large responses are only kept in the table
+        if (record.getBody() != null && record.getBody().length > maxCachedBodyBytes) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(cacheKey, record);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.library.booking.service;
+
+import com.library.booking.model.PaymentScreenshot;
+import com.library.booking.repository.PaymentScreenshotRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+public class PaymentScreenshotService {
+
+    private static final String DEFAULT_CONTENT_TYPE = "image/jpeg";
+
+    // Screenshots are served with their stored type, so only types a browser
+    // will not render as a page are kept; anything else is served as a download
+    private static final Set<String> IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/webp");
+    private static final String FALLBACK_CONTENT_TYPE = "application/octet-stream";
+
+    private final PaymentScreenshotRepository screenshotRepository;
+
+    public PaymentScreenshotService(PaymentScreenshotRepository screenshotRepository) {
+        this.screenshotRepository = screenshotRepository;
+    }
+
+    /**
+     * Decodes a base64 screenshot, either a bare string or a
+     * {@code data:<type>;base64,<payload>} URL as sent by the frontend, and
+     * stores it as binary. Returns the new screenshot id.
+     */
+    @Transactional
+    public Long store(String encoded) {
+        return store(decode(encoded));
+    }
+
+    @Transactional
+    public Long store(PaymentScreenshot screenshot) {
+        return screenshotRepository.save(screenshot).getId();
+    }
+
+    /**
+     * Parses an encoded screenshot without storing it. Throws on anything
+     * that is not base64, before any transaction is involved.
+     */
+    public static PaymentScreenshot decode(String encoded) {
+        String contentType = DEFAULT_CONTENT_TYPE;
+        String payload = encoded.trim();
+        if (payload.startsWith("data:")) {
+            int comma = payload.indexOf(',');
+            if (comma < 0) {
+                throw new RuntimeException("Invalid payment screenshot");
+            }
+            String header = payload.substring(5, comma);
+            int semicolon = header.indexOf(';');
+            String declaredType = semicolon >= 0 ? header.substring(0, semicolon) : header;
+            if (!declaredType.isEmpty()) {
+                contentType = servedContentType(declaredType);
+            }
+            payload = payload.substring(comma + 1);
+        }
+
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid payment screenshot");
+        }
+        return new PaymentScreenshot(contentType, data);
+    }
+
+    /**
+     * The content type to store and serve for a declared type: the type
+     * itself if it is an allowed image type, application/octet-stream
+     * otherwise.
+     */
+    public static String servedContentType(String contentType) {
+        String normalized = contentType != null ? contentType.trim().toLowerCase(Locale.ROOT) : "";
+        return IMAGE_TYPES.contains(normalized) ? normalized : FALLBACK_CONTENT_TYPE;
+    }
+
+    @Transactional(readOnly = true)
+    public PaymentScreenshot getScreenshot(Long id) {
+        return screenshotRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payment screenshot not found"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.library.booking.service;
+
+import com.library.booking.model.Booking;
+import com.library.booking.model.Booking.BookingStatus;
+import com.library.booking.model.RevenueRollup;
+import com.library.booking.repository.RevenueRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains per-day, per-shift totals of confirmed booking revenue so revenue
+ * queries read O(days) rollup rows instead of summing the bookings table.
+ * Revenue is attributed to the booking's bookingDate. A booking counts while
+ * it is CONFIRMED, and still counts once a confirmed booking has EXPIRED at
+ * the end of its term; it adds to its cell when it starts counting and
+ * subtracts when it stops.
+ */
+@Service
+public class RevenueRollupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    // Bounds used for "all time" queries
+    private static final LocalDate MIN_DAY = LocalDate.of(2000, 1, 1);
+    private static final LocalDate MAX_DAY = LocalDate.of(9999, 12, 31);
+
+    private final RevenueRollupRepository rollupRepository;
+
+    public RevenueRollupService(RevenueRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Backfills the rollups on first start, when the table is still empty.
+     * The table belongs to this service alone (library-service keeps its own), so
+     * an empty table means this service has never backfilled. Runs in one
+     * transaction with the rebuild, which is a self-call and would otherwise
+     * bypass its own transaction.
+     */
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Applies a booking status transition to the rollups. Must run in the
+     * transaction that changes the booking.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStatusChange(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
+        boolean wasCounted = isCounted(booking, oldStatus);
+        boolean isCounted = isCounted(booking, newStatus);
+        if (wasCounted == isCounted || booking.getTotalAmount() == null) {
+            return;
+        }
+        BigDecimal amount = isCounted ? booking.getTotalAmount() : booking.getTotalAmount().negate();
+        rollupRepository.increment(booking.getBookingDate(), RevenueRollup.SOURCE_BOOKING,
+                booking.getShiftId(), amount, isCounted ? 1 : -1);
+    }
+
+    /**
+     * Applies the same transition to many bookings, with one rollup upsert per
+     * (day, shift) cell instead of one per booking.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStatusChange(Collection<Booking> bookings, BookingStatus oldStatus, BookingStatus newStatus) {
+        Map<Map.Entry<LocalDate, Long>, BigDecimal> amounts = new LinkedHashMap<>();
+        Map<Map.Entry<LocalDate, Long>, Integer> entries = new HashMap<>();
+        for (Booking booking : bookings) {
+            boolean wasCounted = isCounted(booking, oldStatus);
+            boolean isCounted = isCounted(booking, newStatus);
+            if (wasCounted == isCounted || booking.getTotalAmount() == null) {
+                continue;
+            }
+            Map.Entry<LocalDate, Long> cell = Map.entry(booking.getBookingDate(), booking.getShiftId());
+            amounts.merge(cell, isCounted ? booking.getTotalAmount() : booking.getTotalAmount().negate(),
+                    BigDecimal::add);
+            entries.merge(cell, isCounted ? 1 : -1, Integer::sum);
+        }
+        amounts.forEach((cell, amount) -> rollupRepository.increment(cell.getKey(), RevenueRollup.SOURCE_BOOKING,
+                cell.getValue(), amount, entries.get(cell)));
+    }
+
+    private static boolean isCounted(Booking booking, BookingStatus status) {
+        return status == BookingStatus.CONFIRMED
+                || (status == BookingStatus.EXPIRED && booking.getConfirmedAt() != null);
+    }
+
+    /**
+     * Recomputes all booking rollups from the bookings table in one transaction.
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteBookingRollups();
+        int cells = rollupRepository.backfillBookingRollups();
+        log.info("Rebuilt booking revenue rollups: {} day/shift cells", cells);
+        return cells;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getRevenue(LocalDate from, LocalDate to) {
+        return rollupRepository.sumAmount(from != null ? from : MIN_DAY, to != null ? to : MAX_DAY);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueRollup> getDailyRevenue(LocalDate from, LocalDate to) {
+        return rollupRepository.findByDayBetweenOrderByDayAscShiftIdAsc(
+                from != null ? from : MIN_DAY, to != null ? to : MAX_DAY);
+    }
+}
@@ -0,0 +1,344 @@
+package com.library.booking.service;
+
+import com.library.booking.dto.SeatReleasedEvent;
+import com.library.booking.model.Booking;
+import com.library.booking.model.SeatHold;
+import com.library.booking.repository.SeatHoldRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived exclusive holds on a seat, shift and date range.
+ *
+ * A hold is a claim in the {@link SeatOccupancyIndex}, so it is taken under
+ * the same per-(seat, shift) lock as a booking and conflicts with both. Each
+ * hold is also written to {@code seat_holds}: the rows are reloaded on
+ * startup, and converting a hold the index no longer knows about falls back
+ * to its row. Holds are released by a {@link TimingWheel} once their TTL runs
+ * out, and a user keeps at most one hold at a time.
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final SeatOccupancyIndex occupancyIndex;
+    private final SeatStatusOutboxService seatStatusOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlSeconds;
+
+    // holdId -> live hold; removing an entry is what makes expiry and conversion mutually exclusive
+    private final Map<Long, ActiveHold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Long> holdsByUser = new ConcurrentHashMap<>();
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(1000, System.currentTimeMillis());
+    private final List<Long> due = new ArrayList<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seat-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SeatHoldService(SeatHoldRepository seatHoldRepository, SeatOccupancyIndex occupancyIndex,
+            SeatStatusOutboxService seatStatusOutbox, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, @Value("${booking.hold.ttl-seconds:600}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.seatStatusOutbox = seatStatusOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.ttlSeconds = ttlSeconds;
+        Gauge.builder("booking.holds.active", holds, Map::size)
+                .description("Seat holds currently in force")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        int restored = 0;
+        for (SeatHold row : seatHoldRepository.findAll()) {
+            if (!row.getExpiresAt().isAfter(now)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    seatHoldRepository.deleteById(row.getId());
+                    markAvailableIfUnclaimed(row.getSeatId());
+                });
+                continue;
+            }
+            SeatOccupancyIndex.Claim claim = occupancyIndex.restore(
+                    row.getSeatId(), row.getShiftId(), row.getStartDate(), row.getEndDate());
+            if (claim == null) {
+                log.warn("Dropping seat hold {}: seat {} was booked while the service was down",
+                        row.getId(), row.getSeatId());
+                seatHoldRepository.deleteById(row.getId());
+                continue;
+            }
+            register(new ActiveHold(row, claim));
+            restored++;
+        }
+        log.info("Restored {} seat holds", restored);
+        ticker.scheduleWithFixedDelay(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Holds the seat for the user until the TTL runs out, replacing any hold
+     * the user already has. The previous hold is only given up once the new
+     * seat has been claimed.
+     */
+    @Transactional
+    public SeatHold placeHold(SeatHold request) {
+        if (request.getUserId() == null || request.getSeatId() == null || request.getShiftId() == null) {
+            throw new RuntimeException("User, seat and shift are required");
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new RuntimeException("Hold start date and end date are required");
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("Hold end date cannot be before start date");
+        }
+
+        // Claimed before the previous hold is given up, so a failed attempt keeps it
+        SeatOccupancyIndex.Claim claim = occupancyIndex.claim(
+                request.getSeatId(), request.getShiftId(), request.getStartDate(), request.getEndDate());
+        if (claim == null) {
+            throw new RuntimeException(
+                    "Seat is already booked or held for this shift. Please select a different seat or shift.");
+        }
+        boolean onlyClaim = !occupancyIndex.hasOtherClaims(request.getSeatId(), claim);
+
+        SeatHold hold = seatHoldRepository.save(new SeatHold(
+                request.getUserId(),
+                request.getSeatId(),
+                request.getShiftId(),
+                request.getStartDate(),
+                request.getEndDate(),
+                LocalDateTime.now().plusSeconds(ttlSeconds)));
+        if (onlyClaim) {
+            seatStatusOutbox.enqueue(hold.getSeatId(), "HOLD");
+        }
+        Long previous = holdsByUser.get(request.getUserId());
+        ActiveHold replaced = previous != null ? holds.get(previous) : null;
+        if (replaced != null) {
+            replace(replaced);
+        }
+        ActiveHold active = new ActiveHold(hold, claim);
+        afterCommit(() -> register(active));
+        return hold;
+    }
+
+    public boolean hasHold(Long userId) {
+        return holdsByUser.containsKey(userId);
+    }
+
+    /**
+     * Gives the hold up early, e.g. when the user leaves the payment page.
+     */
+    @Transactional
+    public void releaseHold(Long holdId) {
+        ActiveHold hold = holds.remove(holdId);
+        if (hold == null) {
+            seatHoldRepository.deleteById(holdId);
+            return;
+        }
+        forget(hold);
+        free(hold);
+    }
+
+    /**
+     * Takes the hold over for a booking being created in the current
+     * transaction and returns its claim, to be confirmed with the booking id.
+     * The booking must be for the same user, seat, shift and dates. If the
+     * transaction rolls back, the hold is put back until its original expiry.
+     */
+    public SeatOccupancyIndex.Claim convert(Long holdId, Booking booking) {
+        ActiveHold hold = holds.remove(holdId);
+        if (hold == null) {
+            hold = reclaim(holdId);
+        } else {
+            forget(hold);
+        }
+        if (hold == null) {
+            throw new RuntimeException("Seat hold has expired. Please select the seat again.");
+        }
+        if (!hold.matches(booking)) {
+            register(hold);
+            throw new RuntimeException("Booking does not match the held seat, shift or dates");
+        }
+        seatHoldRepository.deleteById(holdId);
+        ActiveHold taken = hold;
+        afterRollback(() -> register(taken));
+        return hold.claim;
+    }
+
+    // DB fallback for a hold whose in-memory claim is gone, e.g. after a restart race
+    private ActiveHold reclaim(Long holdId) {
+        SeatHold row = seatHoldRepository.findById(holdId).orElse(null);
+        if (row == null || !row.getExpiresAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        SeatOccupancyIndex.Claim claim = occupancyIndex.claim(
+                row.getSeatId(), row.getShiftId(), row.getStartDate(), row.getEndDate());
+        return claim == null ? null : new ActiveHold(row, claim);
+    }
+
+    private void register(ActiveHold hold) {
+        holds.put(hold.id, hold);
+        holdsByUser.put(hold.userId, hold.id);
+        synchronized (wheel) {
+            if (!wheel.schedule(hold.id, hold.expiresAtMs)) {
+                due.add(hold.id);
+            }
+        }
+    }
+
+    private void forget(ActiveHold hold) {
+        holdsByUser.remove(hold.userId, hold.id);
+        synchronized (wheel) {
+            wheel.cancel(hold.id);
+        }
+    }
+
+    // Drops the row in the current transaction and the claim once it commits
+    private void replace(ActiveHold hold) {
+        seatHoldRepository.deleteById(hold.id);
+        if (!occupancyIndex.hasOtherClaims(hold.seatId, hold.claim)) {
+            seatStatusOutbox.enqueue(hold.seatId, "AVAILABLE");
+        }
+        afterCommit(() -> {
+            if (holds.remove(hold.id, hold)) {
+                forget(hold);
+                occupancyIndex.release(hold.claim);
+                eventPublisher.publishEvent(new SeatReleasedEvent(hold.seatId, hold.shiftId));
+            }
+        });
+    }
+
+    private void free(ActiveHold hold) {
+        occupancyIndex.release(hold.claim);
+        transactionTemplate.executeWithoutResult(status -> {
+            seatHoldRepository.deleteById(hold.id);
+            markAvailableIfUnclaimed(hold.seatId);
+        });
+        eventPublisher.publishEvent(new SeatReleasedEvent(hold.seatId, hold.shiftId));
+    }
+
+    // Leave the seat status alone while another booking or hold still covers it
+    private void markAvailableIfUnclaimed(Long seatId) {
+        if (!occupancyIndex.hasOtherClaims(seatId, null)) {
+            seatStatusOutbox.enqueue(seatId, "AVAILABLE");
+        }
+    }
+
+    private void tick() {
+        List<Long> expired;
+        synchronized (wheel) {
+            due.addAll(wheel.advance(System.currentTimeMillis()));
+            if (due.isEmpty()) {
+                return;
+            }
+            expired = new ArrayList<>(due);
+            due.clear();
+        }
+        for (Long holdId : expired) {
+            ActiveHold hold = holds.remove(holdId);
+            if (hold == null) {
+                continue;
+            }
+            holdsByUser.remove(hold.userId, hold.id);
+            try {
+                free(hold);
+            } catch (Exception e) {
+                // The claim is already gone; a leftover row is dropped on the next startup
+                log.warn("Failed to clean up expired seat hold {}: {}", holdId, e.getMessage());
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static final class ActiveHold {
+        private final Long id;
+        private final Long userId;
+        private final Long seatId;
+        private final Long shiftId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final long expiresAtMs;
+        private final SeatOccupancyIndex.Claim claim;
+
+        private ActiveHold(SeatHold row, SeatOccupancyIndex.Claim claim) {
+            this.id = row.getId();
+            this.userId = row.getUserId();
+            this.seatId = row.getSeatId();
+            this.shiftId = row.getShiftId();
+            this.startDate = row.getStartDate();
+            this.endDate = row.getEndDate();
+            this.expiresAtMs = row.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.claim = claim;
+        }
+
+        private boolean matches(Booking booking) {
+            return userId.equals(booking.getUserId())
+                    && seatId.equals(booking.getSeatId())
+                    && shiftId.equals(booking.getShiftId())
+                    && startDate.equals(booking.getStartDate())
+                    && endDate.equals(booking.getEndDate());
+        }
+    }
+}
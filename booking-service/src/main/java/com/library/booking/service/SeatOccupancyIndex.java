@@ -0,0 +1,334 @@
+package com.library.booking.service;
+
+import com.library.booking.dto.BookingSlot;
+import com.library.booking.model.Booking;
+import com.library.booking.model.Booking.BookingStatus;
+import com.library.booking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of which days each (seat, shift) pair is taken.
+ *
+ * Every active booking (PENDING, PAYMENT_SUBMITTED, CONFIRMED) is kept as a
+ * run of set bits in a per-(seat, shift) day bitmap, so conflict checks and
+ * availability lookups never hit MySQL. The bookings table stays the source of
+ * truth: the index is rebuilt from it on startup, and BookingService keeps it
+ * in step with every status change. Additions are undone if the surrounding
+ * transaction rolls back; removals are only applied once it commits.
+ *
+ * A booking only marks its own shift's bitmap, but conflict checks look at
+ * every shift that overlaps it according to {@link ShiftConflicts}, so a Full
+ * Day booking blocks Morning, Afternoon and Evening on that seat and vice versa.
+ */
+@Component
+public class SeatOccupancyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatOccupancyIndex.class);
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(
+            BookingStatus.PENDING,
+            BookingStatus.PAYMENT_SUBMITTED,
+            BookingStatus.CONFIRMED);
+
+    private final BookingRepository bookingRepository;
+    private final ShiftConflicts shiftConflicts;
+
+    // shiftId -> seatId -> occupied days
+    private final Map<Long, Map<Long, DayBitmap>> slots = new ConcurrentHashMap<>();
+
+    // Owner ids for claims made before the booking row has an id
+    private final AtomicLong provisionalIds = new AtomicLong();
+
+    public SeatOccupancyIndex(BookingRepository bookingRepository, ShiftConflicts shiftConflicts) {
+        this.bookingRepository = bookingRepository;
+        this.shiftConflicts = shiftConflicts;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        slots.clear();
+        List<BookingSlot> active = bookingRepository.findByStatusIn(ACTIVE_STATUSES);
+        for (BookingSlot slot : active) {
+            if (slot.getStartDate() == null || slot.getEndDate() == null) {
+                continue;
+            }
+            bitmap(slot.getSeatId(), slot.getShiftId())
+                    .mark(slot.getId(), slot.getStartDate().toEpochDay(), slot.getEndDate().toEpochDay());
+        }
+        log.info("Seat occupancy index rebuilt from {} active bookings", active.size());
+    }
+
+    public static boolean isActive(BookingStatus status) {
+        return status != null && ACTIVE_STATUSES.contains(status);
+    }
+
+    public boolean isAvailable(Long seatId, Long shiftId, LocalDate startDate, LocalDate endDate) {
+        for (long conflicting : shiftConflicts.conflictingShifts(shiftId)) {
+            Map<Long, DayBitmap> seats = slots.get(conflicting);
+            DayBitmap days = seats != null ? seats.get(seatId) : null;
+            if (days != null && !days.isFree(startDate.toEpochDay(), endDate.toEpochDay())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Set<Long> getOccupiedSeatIds(Long shiftId, LocalDate startDate, LocalDate endDate) {
+        Set<Long> occupied = new TreeSet<>();
+        long first = startDate.toEpochDay();
+        long last = endDate.toEpochDay();
+        for (long conflicting : shiftConflicts.conflictingShifts(shiftId)) {
+            Map<Long, DayBitmap> seats = slots.get(conflicting);
+            if (seats == null) {
+                continue;
+            }
+            seats.forEach((seatId, days) -> {
+                if (!occupied.contains(seatId) && !days.isFree(first, last)) {
+                    occupied.add(seatId);
+                }
+            });
+        }
+        return occupied;
+    }
+
+    /**
+     * Atomically checks that the seat is free on this and every overlapping
+     * shift for the whole range and reserves it. Returns null on conflict. The
+     * claim is dropped again if the current transaction rolls back; call
+     * {@link #confirm} once the booking has an id.
+     */
+    public Claim claim(Long seatId, Long shiftId, LocalDate startDate, LocalDate endDate) {
+        return claim(seatId, shiftId, startDate, endDate, shiftConflicts.conflictingShifts(shiftId));
+    }
+
+    /**
+     * Takes a claim again that was checked against every overlapping shift
+     * when it was first made, such as a hold restored at startup. Only its
+     * own shift is checked, so it works before the shift overlaps are known.
+     */
+    public Claim restore(Long seatId, Long shiftId, LocalDate startDate, LocalDate endDate) {
+        return claim(seatId, shiftId, startDate, endDate, new long[] { shiftId });
+    }
+
+    private Claim claim(Long seatId, Long shiftId, LocalDate startDate, LocalDate endDate, long[] conflicting) {
+        Claim claim = new Claim(seatId, shiftId, -provisionalIds.incrementAndGet());
+        DayBitmap[] days = new DayBitmap[conflicting.length];
+        for (int i = 0; i < conflicting.length; i++) {
+            days[i] = bitmap(seatId, conflicting[i]);
+        }
+        if (!claimLocked(days, 0, bitmap(seatId, shiftId), claim.ownerId,
+                startDate.toEpochDay(), endDate.toEpochDay())) {
+            return null;
+        }
+        afterRollback(() -> bitmap(seatId, shiftId).unmark(claim.ownerId));
+        return claim;
+    }
+
+    public void confirm(Claim claim, Long bookingId) {
+        DayBitmap days = bitmap(claim.seatId, claim.shiftId);
+        long previousOwner;
+        synchronized (days) {
+            previousOwner = claim.ownerId;
+            days.rename(previousOwner, bookingId);
+            claim.ownerId = bookingId;
+        }
+        // Hand the range back to the claim (e.g. a seat hold) if the booking is rolled back
+        afterRollback(() -> {
+            synchronized (days) {
+                if (claim.ownerId == bookingId) {
+                    days.rename(bookingId, previousOwner);
+                    claim.ownerId = previousOwner;
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops a claim that never became a booking, e.g. an expired seat hold.
+     */
+    public void release(Claim claim) {
+        bitmap(claim.seatId, claim.shiftId).unmark(claim.ownerId);
+    }
+
+    /**
+     * Whether any booking or hold other than {@code except} (may be null)
+     * covers the seat, on any shift and day.
+     */
+    public boolean hasOtherClaims(Long seatId, Claim except) {
+        long exceptOwner = except == null ? 0 : except.ownerId;
+        for (Map<Long, DayBitmap> seats : slots.values()) {
+            DayBitmap days = seats.get(seatId);
+            if (days != null && days.hasOwnerOtherThan(exceptOwner)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks an existing booking as occupying its range without a conflict
+     * check, e.g. when an admin re-activates a cancelled booking.
+     */
+    public void occupy(Booking booking) {
+        DayBitmap days = bitmap(booking.getSeatId(), booking.getShiftId());
+        days.mark(booking.getId(), booking.getStartDate().toEpochDay(), booking.getEndDate().toEpochDay());
+        afterRollback(() -> days.unmark(booking.getId()));
+    }
+
+    /**
+     * Frees the booking's range once the current transaction commits, so a
+     * rolled-back cancel never leaves the seat looking free.
+     */
+    public void releaseAfterCommit(Booking booking) {
+        Long seatId = booking.getSeatId();
+        Long shiftId = booking.getShiftId();
+        Long bookingId = booking.getId();
+        afterCommit(() -> bitmap(seatId, shiftId).unmark(bookingId));
+    }
+
+    // Locks the bitmaps in ascending shift order (so concurrent claims cannot
+    // deadlock), then checks them all and marks the target
+    private static boolean claimLocked(DayBitmap[] days, int index, DayBitmap target, long owner,
+            long first, long last) {
+        if (index < days.length) {
+            synchronized (days[index]) {
+                return claimLocked(days, index + 1, target, owner, first, last);
+            }
+        }
+        for (DayBitmap day : days) {
+            if (!day.isFree(first, last)) {
+                return false;
+            }
+        }
+        target.mark(owner, first, last);
+        return true;
+    }
+
+    private DayBitmap bitmap(Long seatId, Long shiftId) {
+        return slots.computeIfAbsent(shiftId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(seatId, k -> new DayBitmap());
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public static final class Claim {
+        private final Long seatId;
+        private final Long shiftId;
+        private volatile long ownerId;
+
+        private Claim(Long seatId, Long shiftId, long ownerId) {
+            this.seatId = seatId;
+            this.shiftId = shiftId;
+            this.ownerId = ownerId;
+        }
+    }
+
+    /**
+     * Days taken on one (seat, shift), as bits offset from {@code baseDay}.
+     * The owning ranges are kept alongside so that removing one booking does
+     * not clear days still covered by another (legacy rows may overlap).
+     */
+    private static final class DayBitmap {
+        private final Map<Long, long[]> ranges = new HashMap<>();
+        private BitSet days = new BitSet();
+        private long baseDay = Long.MIN_VALUE;
+
+        synchronized boolean isFree(long first, long last) {
+            if (days.isEmpty() || last < baseDay) {
+                return true;
+            }
+            int next = days.nextSetBit((int) Math.max(0, first - baseDay));
+            return next < 0 || next > last - baseDay;
+        }
+
+        synchronized void mark(long owner, long first, long last) {
+            ranges.put(owner, new long[] { first, last });
+            set(first, last);
+        }
+
+        synchronized void unmark(long owner) {
+            long[] removed = ranges.remove(owner);
+            if (removed == null) {
+                return;
+            }
+            days.clear((int) (removed[0] - baseDay), (int) (removed[1] - baseDay) + 1);
+            for (long[] other : ranges.values()) {
+                long first = Math.max(other[0], removed[0]);
+                long last = Math.min(other[1], removed[1]);
+                if (first <= last) {
+                    set(first, last);
+                }
+            }
+        }
+
+        synchronized boolean hasOwnerOtherThan(long owner) {
+            return ranges.size() > (ranges.containsKey(owner) ? 1 : 0);
+        }
+
+        synchronized void rename(long from, long to) {
+            long[] range = ranges.remove(from);
+            if (range != null) {
+                ranges.put(to, range);
+            }
+        }
+
+        private void set(long first, long last) {
+            if (baseDay == Long.MIN_VALUE) {
+                baseDay = first;
+            } else if (first < baseDay) {
+                rebase(first);
+            }
+            days.set((int) (first - baseDay), (int) (last - baseDay) + 1);
+        }
+
+        private void rebase(long newBaseDay) {
+            BitSet shifted = new BitSet();
+            int offset = (int) (baseDay - newBaseDay);
+            for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+                shifted.set(i + offset);
+            }
+            days = shifted;
+            baseDay = newBaseDay;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.library.booking.service;
+
+import com.library.booking.client.ResilientLibraryClient;
+import com.library.booking.dto.SeatSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which section (room) each seat belongs to, polled from library-service so
+ * section-wide waitlists can be matched against a freed seat. Until the
+ * first successful poll no seat belongs to any section.
+ */
+@Component
+public class SeatSections {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatSections.class);
+
+    private final ResilientLibraryClient libraryClient;
+
+    private volatile Map<Long, String> sectionBySeat = Map.of();
+    private volatile Map<String, long[]> seatsBySection = Map.of();
+
+    public SeatSections(ResilientLibraryClient libraryClient) {
+        this.libraryClient = libraryClient;
+    }
+
+    public String sectionOf(Long seatId) {
+        return sectionBySeat.get(seatId);
+    }
+
+    /**
+     * Seat ids of the section in ascending order; empty if unknown.
+     */
+    public long[] seatsIn(String section) {
+        long[] seats = seatsBySection.get(section);
+        return seats != null ? seats : new long[0];
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${booking.seat-sections.refresh-ms:300000}")
+    public void refresh() {
+        List<SeatSummary> seats;
+        try {
+            seats = libraryClient.getSeats();
+        } catch (Exception e) {
+            log.debug("Could not refresh seat sections, keeping the current ones: {}", e.getMessage());
+            return;
+        }
+        if (seats == null) {
+            return;
+        }
+        Map<Long, String> bySeat = new HashMap<>(seats.size() * 2);
+        Map<String, List<Long>> bySection = new HashMap<>();
+        for (SeatSummary seat : seats) {
+            if (seat.getId() == null || seat.getSection() == null) {
+                continue;
+            }
+            bySeat.put(seat.getId(), seat.getSection());
+            bySection.computeIfAbsent(seat.getSection(), k -> new ArrayList<>()).add(seat.getId());
+        }
+        Map<String, long[]> sections = new HashMap<>();
+        bySection.forEach((section, ids) -> sections.put(section,
+                ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+        sectionBySeat = bySeat;
+        seatsBySection = sections;
+    }
+}
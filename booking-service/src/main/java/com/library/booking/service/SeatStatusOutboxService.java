@@ -0,0 +1,160 @@
+package com.library.booking.service;
+
+import com.library.booking.client.ResilientLibraryClient;
+import com.library.booking.dto.SeatStatusUpdate;
+import com.library.booking.model.SeatStatusOutboxEntry;
+import com.library.booking.repository.SeatStatusOutboxRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for seat status changes sent to library-service.
+ *
+ * Booking transactions only insert an outbox row; a background dispatcher
+ * picks up due rows in batches, keeps the latest change per seat, pushes the
+ * whole batch in one bulk call and deletes the delivered rows together with
+ * the older rows they supersede. Failed batches are retried with exponential
+ * backoff. While the library-service circuit breaker is open the outbox just
+ * holds on to its rows, without spending their retry attempts.
+ */
+@Service
+public class SeatStatusOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatStatusOutboxService.class);
+
+    private final SeatStatusOutboxRepository outboxRepository;
+    private final ResilientLibraryClient libraryClient;
+
+    private final Counter deliveredCounter;
+    private final Counter coalescedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryLag;
+
+    @Value("${booking.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${booking.outbox.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    @Value("${booking.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    public SeatStatusOutboxService(SeatStatusOutboxRepository outboxRepository, ResilientLibraryClient libraryClient,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.libraryClient = libraryClient;
+        this.deliveredCounter = meterRegistry.counter("booking.outbox.delivered");
+        this.coalescedCounter = meterRegistry.counter("booking.outbox.coalesced");
+        this.failedCounter = meterRegistry.counter("booking.outbox.failed");
+        this.deliveryLag = Timer.builder("booking.outbox.delivery.lag")
+                .description("Time from outbox insert to successful delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.pending", outboxRepository, SeatStatusOutboxRepository::count)
+                .description("Seat status changes not yet delivered")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.lag.seconds", this, SeatStatusOutboxService::oldestPendingAgeSeconds)
+                .description("Age of the oldest undelivered seat status change")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a seat status change. Must run inside the booking transaction so
+     * the change is persisted if and only if the booking change commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long seatId, String status) {
+        outboxRepository.save(new SeatStatusOutboxEntry(seatId, status));
+    }
+
+    /**
+     * Records the same status change for several seats, e.g. after a bulk
+     * booking; same transactional contract as {@link #enqueue}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(Collection<Long> seatIds, String status) {
+        List<SeatStatusOutboxEntry> entries = new ArrayList<>(seatIds.size());
+        for (Long seatId : seatIds) {
+            entries.add(new SeatStatusOutboxEntry(seatId, status));
+        }
+        outboxRepository.saveAll(entries);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        if (!libraryClient.isCallPermitted()) {
+            return;
+        }
+        List<SeatStatusOutboxEntry> due = outboxRepository.findDue(LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Entries are ordered by id, so the last one per seat is the latest status
+        Map<Long, List<SeatStatusOutboxEntry>> bySeat = new LinkedHashMap<>();
+        for (SeatStatusOutboxEntry entry : due) {
+            bySeat.computeIfAbsent(entry.getSeatId(), k -> new ArrayList<>()).add(entry);
+        }
+
+        List<SeatStatusUpdate> updates = new ArrayList<>(bySeat.size());
+        bySeat.forEach((seatId, entries) -> updates.add(
+                new SeatStatusUpdate(seatId, entries.get(entries.size() - 1).getStatus())));
+
+        try {
+            libraryClient.updateSeatStatuses(updates);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // Not the batch's fault; try again once library-service is reachable
+            log.debug("Seat status push deferred: {}", e.getMessage());
+            return;
+        } catch (Exception e) {
+            markFailed(due, e);
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        bySeat.forEach((seatId, entries) -> {
+            outboxRepository.deleteDelivered(seatId, entries.get(entries.size() - 1).getId());
+            deliveryLag.record(Duration.between(entries.get(0).getCreatedAt(), now));
+        });
+        deliveredCounter.increment(bySeat.size());
+        coalescedCounter.increment(due.size() - bySeat.size());
+    }
+
+    private void markFailed(List<SeatStatusOutboxEntry> entries, Exception e) {
+        int attempts = entries.stream().mapToInt(SeatStatusOutboxEntry::getAttempts).max().orElse(0);
+        long delayMs = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts, 20));
+        List<Long> ids = entries.stream().map(SeatStatusOutboxEntry::getId).toList();
+        String error = String.valueOf(e.getMessage());
+        outboxRepository.markFailed(ids, LocalDateTime.now().plus(Duration.ofMillis(delayMs)),
+                error.length() > 500 ? error.substring(0, 500) : error);
+        failedCounter.increment();
+        log.warn("Failed to push {} seat status changes (attempt {}), retrying in {} ms: {}",
+                entries.size(), attempts + 1, delayMs, error);
+    }
+
+    private double oldestPendingAgeSeconds() {
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.library.booking.service;
+
+import com.library.booking.client.ResilientLibraryClient;
+import com.library.booking.dto.ShiftOverlaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Which shifts conflict with which, from library-service's shift-overlap
+ * matrix (e.g. "Full Day" conflicts with Morning, Afternoon and Evening).
+ *
+ * The matrix is polled and swapped in whole when it changes. For shifts it
+ * does not know, a shift conflicts only with itself. Until it has been
+ * fetched once nothing is known about overlaps, so lookups fail with
+ * {@link NotLoadedException} (a 503) rather than let a Full Day booking and
+ * a Morning booking take the same seat; the fetch is retried every few
+ * seconds until it succeeds.
+ */
+@Component
+public class ShiftConflicts {
+
+    private static final Logger log = LoggerFactory.getLogger(ShiftConflicts.class);
+
+    private final ResilientLibraryClient libraryClient;
+
+    // shiftId -> conflicting shift ids in ascending order, itself included; null until fetched
+    private volatile Map<Long, long[]> conflicts;
+    private Map<Long, List<Long>> loaded;
+
+    public ShiftConflicts(ResilientLibraryClient libraryClient) {
+        this.libraryClient = libraryClient;
+    }
+
+    /**
+     * The shifts a booking on {@code shiftId} conflicts with, in ascending id
+     * order and including {@code shiftId} itself.
+     */
+    public long[] conflictingShifts(Long shiftId) {
+        Map<Long, long[]> current = conflicts;
+        if (current == null) {
+            throw new NotLoadedException();
+        }
+        long[] shifts = current.get(shiftId);
+        return shifts != null ? shifts : new long[] { shiftId };
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${booking.shift-overlaps.retry-ms:5000}")
+    public void loadIfMissing() {
+        if (conflicts == null) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.shift-overlaps.refresh-ms:60000}",
+            initialDelayString = "${booking.shift-overlaps.refresh-ms:60000}")
+    public synchronized void refresh() {
+        ShiftOverlaps overlaps;
+        try {
+            overlaps = libraryClient.getShiftOverlaps();
+        } catch (Exception e) {
+            log.debug("Could not refresh shift overlaps, keeping the current ones: {}", e.getMessage());
+            return;
+        }
+        // Compared by content: library-service restarts its version numbering
+        if (overlaps == null || overlaps.getOverlaps() == null || overlaps.getOverlaps().equals(loaded)) {
+            return;
+        }
+        Map<Long, long[]> rebuilt = new HashMap<>();
+        overlaps.getOverlaps().forEach((shiftId, ids) -> rebuilt.put(shiftId, sortedWithSelf(shiftId, ids)));
+        conflicts = rebuilt;
+        loaded = overlaps.getOverlaps();
+        log.info("Loaded shift overlap matrix version {} for {} shifts", overlaps.getVersion(), rebuilt.size());
+    }
+
+    private static long[] sortedWithSelf(Long shiftId, List<Long> ids) {
+        return Stream.concat(ids.stream(), Stream.of(shiftId))
+                .mapToLong(Long::longValue)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class NotLoadedException extends RuntimeException {
+        public NotLoadedException() {
+            super("Shift overlaps are not loaded yet, please try again shortly");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.library.booking.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by id.
+ *
+ * Four levels of 64 slots; a level-n slot spans 64^n ticks, so with one-second
+ * ticks the wheel covers about 194 days directly. Deadlines further out are
+ * parked in the top level and re-placed each time it comes around. Scheduling
+ * and cancelling are O(1); advancing one tick touches one level-0 slot plus,
+ * on wrap-around, one slot of each higher level whose entries cascade down.
+ *
+ * Rescheduling or cancelling a key does not search the wheel: the latest
+ * deadline per key is kept in a map and stale entries are dropped when their
+ * slot fires. Not thread-safe; callers synchronize.
+ */
+public final class TimingWheel<K> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMs;
+    private final List<List<Entry<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMs, long startMs) {
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules (or reschedules) {@code key} to expire at {@code deadlineMs}.
+     * Returns false, without scheduling, if the deadline has already passed;
+     * the caller should then expire the key straight away.
+     */
+    public boolean schedule(K key, long deadlineMs) {
+        long deadlineTick = Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+        if (deadlineTick <= currentTick) {
+            deadlines.remove(key);
+            return false;
+        }
+        deadlines.put(key, deadlineTick);
+        place(new Entry<>(key, deadlineTick));
+        return true;
+    }
+
+    public void cancel(K key) {
+        deadlines.remove(key);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMs} and returns the keys whose
+     * deadlines fell due along the way.
+     */
+    public List<K> advance(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade every higher level whose slot boundary we just crossed
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, expired);
+                }
+            }
+            drain(slotIndex(0, currentTick), expired);
+        }
+        return expired;
+    }
+
+    private void place(Entry<K> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                slots.get(slotIndex(level, entry.deadlineTick)).add(entry);
+                return;
+            }
+        }
+        // Beyond the wheel's range: park in the current top-level slot, which
+        // is next cascaded one full revolution from now
+        slots.get(slotIndex(LEVELS - 1, currentTick)).add(entry);
+    }
+
+    private void cascade(int level, List<K> expired) {
+        drain(slotIndex(level, currentTick), expired);
+    }
+
+    // Empties a slot: due entries expire, later ones are re-placed lower down
+    private void drain(int index, List<K> expired) {
+        List<Entry<K>> bucket = slots.get(index);
+        if (bucket.isEmpty()) {
+            return;
+        }
+        slots.set(index, new ArrayList<>());
+        for (Entry<K> entry : bucket) {
+            if (isStale(entry)) {
+                continue;
+            }
+            if (entry.deadlineTick <= currentTick) {
+                deadlines.remove(entry.key);
+                expired.add(entry.key);
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private boolean isStale(Entry<K> entry) {
+        Long current = deadlines.get(entry.key);
+        return current == null || current != entry.deadlineTick;
+    }
+
+    private static int slotIndex(int level, long tick) {
+        return level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineTick;
+
+        private Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.library.booking.service;
+
+import com.library.booking.dto.BookingChangeEvent;
+import com.library.booking.dto.SeatReleasedEvent;
+import com.library.booking.model.Booking;
+import com.library.booking.model.SeatHold;
+import com.library.booking.model.WaitlistEntry;
+import com.library.booking.model.WaitlistEntry.WaitlistStatus;
+import com.library.booking.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * First come, first served waitlists for seats and sections that are full.
+ *
+ * A queue is keyed by its target (one seat or a whole section), shift and
+ * date range and holds its waiting entries in join order. Queues live in
+ * memory; every entry is also a {@code waitlist_entries} row, reloaded on
+ * startup. When a booking is cancelled, rejected or expires, or a seat hold
+ * lapses, the oldest matching entry whose user holds no other seat is
+ * promoted: the seat is held for them through {@link SeatHoldService} and the
+ * entry records the hold id. A periodic sweep catches seats freed any other
+ * way (e.g. deleted bookings). Promotions run on a single background thread.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final SeatHoldService seatHoldService;
+    private final SeatOccupancyIndex occupancyIndex;
+    private final ShiftConflicts shiftConflicts;
+    private final SeatSections seatSections;
+    private final TransactionTemplate transactionTemplate;
+    private final long promotedRetentionHours;
+
+    // All three guarded by queues; a queue is dropped once it is empty
+    private final Map<QueueKey, ArrayDeque<WaitlistEntry>> queues = new LinkedHashMap<>();
+    private final Map<Long, WaitlistEntry> waitingById = new HashMap<>();
+    private final Map<Long, WaitlistEntry> waitingByUser = new HashMap<>();
+
+    private final ExecutorService promoter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "waitlist-promotion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WaitlistService(WaitlistEntryRepository waitlistRepository, SeatHoldService seatHoldService,
+            SeatOccupancyIndex occupancyIndex, ShiftConflicts shiftConflicts, SeatSections seatSections,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.waitlist.promoted-retention-hours:24}") long promotedRetentionHours,
+            MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.seatHoldService = seatHoldService;
+        this.occupancyIndex = occupancyIndex;
+        this.shiftConflicts = shiftConflicts;
+        this.seatSections = seatSections;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.promotedRetentionHours = promotedRetentionHours;
+        Gauge.builder("booking.waitlist.waiting", this, WaitlistService::waitingCount)
+                .description("Users waiting for a seat")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        List<WaitlistEntry> waiting = waitlistRepository.findByStatusOrderByIdAsc(WaitlistStatus.WAITING);
+        synchronized (queues) {
+            waiting.forEach(this::enqueue);
+        }
+        log.info("Restored {} waitlist entries", waiting.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoter.shutdownNow();
+    }
+
+    /**
+     * Queues the user for a seat, or for any seat of a section, on a shift and
+     * date range. A user waits in one queue at a time: joining the same queue
+     * again returns the existing entry, joining another one replaces it.
+     */
+    @Transactional
+    public WaitlistEntry join(WaitlistEntry request) {
+        if (request.getUserId() == null || request.getShiftId() == null) {
+            throw new RuntimeException("User and shift are required");
+        }
+        if ((request.getSeatId() == null) == (request.getSection() == null || request.getSection().isBlank())) {
+            throw new RuntimeException("Either a seat or a section is required, not both");
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new RuntimeException("Waitlist start date and end date are required");
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("Waitlist end date cannot be before start date");
+        }
+
+        QueueKey key = QueueKey.of(request);
+        WaitlistEntry previous;
+        synchronized (queues) {
+            previous = waitingByUser.get(request.getUserId());
+            if (previous != null && QueueKey.of(previous).equals(key)) {
+                return view(previous, positionOf(previous));
+            }
+        }
+        if (previous != null) {
+            leave(previous.getId());
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUserId(request.getUserId());
+        entry.setSeatId(request.getSeatId());
+        entry.setSection(request.getSeatId() == null ? request.getSection() : null);
+        entry.setShiftId(request.getShiftId());
+        entry.setStartDate(request.getStartDate());
+        entry.setEndDate(request.getEndDate());
+        WaitlistEntry saved = waitlistRepository.save(entry);
+
+        int position;
+        synchronized (queues) {
+            ArrayDeque<WaitlistEntry> queue = queues.get(key);
+            position = (queue != null ? queue.size() : 0) + 1;
+        }
+        WaitlistEntry queued = view(saved, null);
+        afterCommit(() -> {
+            synchronized (queues) {
+                enqueue(queued);
+            }
+            // The seat may have been freed while the user was deciding to wait
+            submit(() -> promoteQueue(key));
+        });
+        return view(saved, position);
+    }
+
+    @Transactional
+    public void leave(Long entryId) {
+        waitlistRepository.deleteById(entryId);
+        afterCommit(() -> {
+            synchronized (queues) {
+                dequeue(entryId);
+            }
+        });
+    }
+
+    /**
+     * The user's waiting and recently promoted entries, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> getEntries(Long userId) {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        for (WaitlistEntry row : waitlistRepository.findByUserIdOrderByIdDesc(userId)) {
+            Integer position = null;
+            if (row.getStatus() == WaitlistStatus.WAITING) {
+                synchronized (queues) {
+                    WaitlistEntry waiting = waitingById.get(row.getId());
+                    position = waiting != null ? positionOf(waiting) : null;
+                }
+            }
+            entries.add(view(row, position));
+        }
+        return entries;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangeEvent event) {
+        if (event.getType() != BookingChangeEvent.Type.CANCELLED
+                && event.getType() != BookingChangeEvent.Type.EXPIRED) {
+            return;
+        }
+        Booking booking = event.getBooking();
+        submit(() -> promoteForSeat(booking.getSeatId(), booking.getShiftId()));
+    }
+
+    @EventListener
+    public void onSeatReleased(SeatReleasedEvent event) {
+        submit(() -> promoteForSeat(event.getSeatId(), event.getShiftId()));
+    }
+
+    @Scheduled(fixedDelayString = "${booking.waitlist.sweep-interval-ms:30000}")
+    public void sweep() {
+        submit(this::promoteAll);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.waitlist.purge-interval-ms:3600000}")
+    public void purgePromoted() {
+        int purged = waitlistRepository.deletePromotedBefore(LocalDateTime.now().minusHours(promotedRetentionHours));
+        if (purged > 0) {
+            log.info("Purged {} promoted waitlist entries", purged);
+        }
+    }
+
+    // Offers a freed seat to the queues that could use it, oldest waiter first
+    private void promoteForSeat(Long seatId, Long shiftId) {
+        String section = seatSections.sectionOf(seatId);
+        long[] conflicting = shiftConflicts.conflictingShifts(shiftId);
+        List<List<WaitlistEntry>> candidates = new ArrayList<>();
+        synchronized (queues) {
+            queues.forEach((key, queue) -> {
+                boolean sameTarget = seatId.equals(key.seatId) || (key.section != null && key.section.equals(section));
+                if (sameTarget && contains(conflicting, key.shiftId)) {
+                    candidates.add(new ArrayList<>(queue));
+                }
+            });
+        }
+        candidates.sort(Comparator.comparing(entries -> entries.get(0).getId()));
+        for (List<WaitlistEntry> entries : candidates) {
+            promoteHead(entries, seatId);
+        }
+    }
+
+    private void promoteQueue(QueueKey key) {
+        List<WaitlistEntry> entries;
+        synchronized (queues) {
+            ArrayDeque<WaitlistEntry> queue = queues.get(key);
+            if (queue == null) {
+                return;
+            }
+            entries = new ArrayList<>(queue);
+        }
+        if (key.seatId != null) {
+            promoteHead(entries, key.seatId);
+            return;
+        }
+        for (long seatId : seatSections.seatsIn(key.section)) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            WaitlistEntry promoted = promoteHead(entries, seatId);
+            if (promoted != null) {
+                entries.remove(promoted);
+            }
+        }
+    }
+
+    private void promoteAll() {
+        List<QueueKey> keys;
+        synchronized (queues) {
+            keys = new ArrayList<>(queues.keySet());
+        }
+        keys.forEach(this::promoteQueue);
+    }
+
+    /**
+     * Gives the seat to the first entry of the queue whose user holds no other
+     * seat. Entries of one queue share their shift and dates, so once the seat
+     * turns out to be taken for them the rest of the queue is skipped.
+     */
+    private WaitlistEntry promoteHead(List<WaitlistEntry> entries, long seatId) {
+        for (WaitlistEntry entry : entries) {
+            if (!occupancyIndex.isAvailable(seatId, entry.getShiftId(), entry.getStartDate(), entry.getEndDate())) {
+                return null;
+            }
+            if (seatHoldService.hasHold(entry.getUserId())) {
+                continue;
+            }
+            return promote(entry, seatId) ? entry : null;
+        }
+        return null;
+    }
+
+    private boolean promote(WaitlistEntry entry, long seatId) {
+        Boolean promoted;
+        try {
+            promoted = transactionTemplate.execute(status -> {
+                WaitlistEntry row = waitlistRepository.findById(entry.getId()).orElse(null);
+                if (row == null || row.getStatus() != WaitlistStatus.WAITING) {
+                    // Left the queue in the meantime
+                    return false;
+                }
+                SeatHold hold = seatHoldService.placeHold(new SeatHold(row.getUserId(), seatId, row.getShiftId(),
+                        row.getStartDate(), row.getEndDate(), null));
+                row.setStatus(WaitlistStatus.PROMOTED);
+                row.setSeatId(seatId);
+                row.setHoldId(hold.getId());
+                row.setPromotedAt(LocalDateTime.now());
+                waitlistRepository.save(row);
+                return true;
+            });
+        } catch (RuntimeException e) {
+            // Taken by someone else first; the entry keeps its place
+            log.debug("Could not promote waitlist entry {} to seat {}: {}", entry.getId(), seatId, e.getMessage());
+            return false;
+        }
+        synchronized (queues) {
+            dequeue(entry.getId());
+        }
+        if (Boolean.TRUE.equals(promoted)) {
+            log.info("Promoted waitlist entry {} of user {} to a hold on seat {}",
+                    entry.getId(), entry.getUserId(), seatId);
+            return true;
+        }
+        return false;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            promoter.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("Waitlist promotion failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; queued entries are promoted after the next start
+        }
+    }
+
+    // Callers hold the queues lock
+    private void enqueue(WaitlistEntry entry) {
+        queues.computeIfAbsent(QueueKey.of(entry), k -> new ArrayDeque<>()).addLast(entry);
+        waitingById.put(entry.getId(), entry);
+        waitingByUser.put(entry.getUserId(), entry);
+    }
+
+    // Callers hold the queues lock
+    private void dequeue(Long entryId) {
+        WaitlistEntry entry = waitingById.remove(entryId);
+        if (entry == null) {
+            return;
+        }
+        waitingByUser.remove(entry.getUserId(), entry);
+        QueueKey key = QueueKey.of(entry);
+        ArrayDeque<WaitlistEntry> queue = queues.get(key);
+        if (queue != null) {
+            queue.remove(entry);
+            if (queue.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+    }
+
+    // Callers hold the queues lock
+    private int positionOf(WaitlistEntry entry) {
+        ArrayDeque<WaitlistEntry> queue = queues.get(QueueKey.of(entry));
+        if (queue == null) {
+            return 1;
+        }
+        int position = 1;
+        for (Iterator<WaitlistEntry> it = queue.iterator(); it.hasNext(); position++) {
+            if (it.next().getId().equals(entry.getId())) {
+                return position;
+            }
+        }
+        return position;
+    }
+
+    private int waitingCount() {
+        synchronized (queues) {
+            return waitingById.size();
+        }
+    }
+
+    // Detached copy, so the queued entries are never handed out or modified
+    private static WaitlistEntry view(WaitlistEntry entry, Integer position) {
+        WaitlistEntry copy = new WaitlistEntry();
+        copy.setId(entry.getId());
+        copy.setUserId(entry.getUserId());
+        copy.setSeatId(entry.getSeatId());
+        copy.setSection(entry.getSection());
+        copy.setShiftId(entry.getShiftId());
+        copy.setStartDate(entry.getStartDate());
+        copy.setEndDate(entry.getEndDate());
+        copy.setStatus(entry.getStatus());
+        copy.setHoldId(entry.getHoldId());
+        copy.setCreatedAt(entry.getCreatedAt());
+        copy.setPromotedAt(entry.getPromotedAt());
+        copy.setPosition(position);
+        return copy;
+    }
+
+    private static boolean contains(long[] values, Long value) {
+        for (long v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class QueueKey {
+        private final Long seatId;
+        private final String section;
+        private final Long shiftId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        private QueueKey(Long seatId, String section, Long shiftId, LocalDate startDate, LocalDate endDate) {
+            this.seatId = seatId;
+            this.section = section;
+            this.shiftId = shiftId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        private static QueueKey of(WaitlistEntry entry) {
+            // A promoted section entry has a seat as well; it is keyed by its section
+            boolean bySection = entry.getSection() != null && !entry.getSection().isBlank();
+            return new QueueKey(bySection ? null : entry.getSeatId(), bySection ? entry.getSection() : null,
+                    entry.getShiftId(), entry.getStartDate(), entry.getEndDate());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueueKey)) {
+                return false;
+            }
+            QueueKey other = (QueueKey) o;
+            return Objects.equals(seatId, other.seatId)
+                    && Objects.equals(section, other.section)
+                    && shiftId.equals(other.shiftId)
+                    && startDate.equals(other.startDate)
+                    && endDate.equals(other.endDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(seatId, section, shiftId, startDate, endDate);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.library.booking.service;
+
+import com.library.booking.model.Booking;
+import com.library.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatOccupancyIndexTest {
+
+    private static final long SEAT = 7L;
+    private static final long MORNING = 1L;
+    private static final long AFTERNOON = 2L;
+    private static final long FULL_DAY = 4L;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    private SeatOccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ShiftConflicts shiftConflicts = mock(ShiftConflicts.class);
+        when(shiftConflicts.conflictingShifts(MORNING)).thenReturn(new long[] { MORNING, FULL_DAY });
+        when(shiftConflicts.conflictingShifts(AFTERNOON)).thenReturn(new long[] { AFTERNOON, FULL_DAY });
+        when(shiftConflicts.conflictingShifts(FULL_DAY))
+                .thenReturn(new long[] { MORNING, AFTERNOON, FULL_DAY });
+        index = new SeatOccupancyIndex(mock(BookingRepository.class), shiftConflicts);
+    }
+
+    @Test
+    void releasingOneOfTwoOverlappingBookingsKeepsTheSharedDays() {
+        Booking first = booking(1L, MORNING, 0, 9);
+        Booking second = booking(2L, MORNING, 5, 14);
+        index.occupy(first);
+        index.occupy(second);
+
+        // No transaction is active, so the release applies straight away
+        index.releaseAfterCommit(first);
+
+        assertThat(isFree(MORNING, 0, 4)).isTrue();
+        assertThat(isFree(MORNING, 5, 5)).isFalse();
+        assertThat(isFree(MORNING, 9, 9)).isFalse();
+        assertThat(isFree(MORNING, 14, 14)).isFalse();
+
+        index.releaseAfterCommit(second);
+        assertThat(isFree(MORNING, 0, 14)).isTrue();
+        assertThat(index.hasOtherClaims(SEAT, null)).isFalse();
+    }
+
+    @Test
+    void bookingBeforeTheFirstKnownDayKeepsLaterDaysTaken() {
+        Booking later = booking(1L, MORNING, 100, 110);
+        Booking earlier = booking(2L, MORNING, 50, 55);
+        index.occupy(later);
+        index.occupy(earlier);
+
+        assertThat(isFree(MORNING, 50, 50)).isFalse();
+        assertThat(isFree(MORNING, 55, 55)).isFalse();
+        assertThat(isFree(MORNING, 56, 99)).isTrue();
+        assertThat(isFree(MORNING, 100, 100)).isFalse();
+        assertThat(isFree(MORNING, 110, 110)).isFalse();
+        assertThat(isFree(MORNING, 111, 200)).isTrue();
+
+        index.releaseAfterCommit(earlier);
+        assertThat(isFree(MORNING, 50, 99)).isTrue();
+        assertThat(isFree(MORNING, 100, 110)).isFalse();
+    }
+
+    @Test
+    void fullDayClaimConflictsWithMorningButNotWithOtherDays() {
+        assertThat(claim(MORNING, 10, 12)).isNotNull();
+
+        assertThat(claim(FULL_DAY, 12, 20)).isNull();
+        assertThat(claim(FULL_DAY, 13, 20)).isNotNull();
+        assertThat(claim(AFTERNOON, 10, 12)).isNotNull();
+
+        // And the other way round: the Full Day booking now blocks Morning
+        assertThat(claim(MORNING, 15, 15)).isNull();
+        assertThat(index.getOccupiedSeatIds(MORNING, DAY.plusDays(20), DAY.plusDays(20))).containsExactly(SEAT);
+        assertThat(index.getOccupiedSeatIds(MORNING, DAY.plusDays(21), DAY.plusDays(30))).isEmpty();
+    }
+
+    @Test
+    void releasedClaimFreesTheSeatForConflictingShifts() {
+        SeatOccupancyIndex.Claim morning = claim(MORNING, 10, 12);
+        assertThat(index.hasOtherClaims(SEAT, morning)).isFalse();
+
+        index.release(morning);
+
+        assertThat(claim(FULL_DAY, 10, 12)).isNotNull();
+    }
+
+    private SeatOccupancyIndex.Claim claim(long shiftId, int firstDay, int lastDay) {
+        return index.claim(SEAT, shiftId, DAY.plusDays(firstDay), DAY.plusDays(lastDay));
+    }
+
+    private boolean isFree(long shiftId, int firstDay, int lastDay) {
+        return index.isAvailable(SEAT, shiftId, DAY.plusDays(firstDay), DAY.plusDays(lastDay));
+    }
+
+    private static Booking booking(Long id, long shiftId, int firstDay, int lastDay) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setSeatId(SEAT);
+        booking.setShiftId(shiftId);
+        booking.setStartDate(DAY.plusDays(firstDay));
+        booking.setEndDate(DAY.plusDays(lastDay));
+        return booking;
+    }
+}
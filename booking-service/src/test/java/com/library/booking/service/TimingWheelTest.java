@@ -0,0 +1,86 @@
+package com.library.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+    // Deliberately not aligned to any level's slot boundary
+    private static final long START_MS = 1_700_000_123_000L;
+
+    @Test
+    void keyFiresOnItsDeadlineTickAndNotBefore() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MS, START_MS);
+        assertThat(wheel.schedule(1L, START_MS + 5 * TICK_MS)).isTrue();
+
+        assertThat(wheel.advance(START_MS + 5 * TICK_MS - 1)).isEmpty();
+        assertThat(wheel.advance(START_MS + 5 * TICK_MS)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesOnEveryLevelCascadeDownAndFireOnTime() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MS, START_MS);
+        long[] delays = { 1, 63, 64, 65, 4095, 4096, 4097, 100_000, 262_143, 262_144, 300_001 };
+        for (long delay : delays) {
+            assertThat(wheel.schedule(delay, START_MS + delay * TICK_MS)).isTrue();
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long tick = 1; tick <= 300_001; tick++) {
+            for (Long key : wheel.advance(START_MS + tick * TICK_MS)) {
+                firedAt.put(key, tick);
+            }
+        }
+
+        assertThat(firedAt).hasSize(delays.length);
+        for (long delay : delays) {
+            assertThat(firedAt.get(delay)).as("delay %d", delay).isEqualTo(delay);
+        }
+    }
+
+    @Test
+    void deadlineBeyondTheWheelIsParkedAndStillFiresOnTime() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MS, START_MS);
+        // Four levels of 64 slots cover 64^4 ticks
+        long delay = (1L << 24) + 1234;
+        wheel.schedule(1L, START_MS + delay * TICK_MS);
+
+        List<Long> early = new ArrayList<>();
+        for (long tick = 1; tick < delay; tick += 4096) {
+            early.addAll(wheel.advance(START_MS + tick * TICK_MS));
+        }
+        early.addAll(wheel.advance(START_MS + (delay - 1) * TICK_MS));
+
+        assertThat(early).isEmpty();
+        assertThat(wheel.advance(START_MS + delay * TICK_MS)).containsExactly(1L);
+    }
+
+    @Test
+    void rescheduledAndCancelledKeysOnlyFireForTheirLatestDeadline() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MS, START_MS);
+        wheel.schedule(1L, START_MS + 10 * TICK_MS);
+        wheel.schedule(1L, START_MS + 100 * TICK_MS);
+        wheel.schedule(2L, START_MS + 10 * TICK_MS);
+        wheel.cancel(2L);
+
+        assertThat(wheel.advance(START_MS + 99 * TICK_MS)).isEmpty();
+        assertThat(wheel.advance(START_MS + 100 * TICK_MS)).containsExactly(1L);
+    }
+
+    @Test
+    void deadlineThatHasPassedIsNotScheduled() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MS, START_MS);
+
+        assertThat(wheel.schedule(1L, START_MS)).isFalse();
+        assertThat(wheel.schedule(2L, START_MS - TICK_MS)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -30,13 +30,14 @@ export default function SeatBooking() {
     const [selected, setSelected] = useState(null);
     const [modal, setModal] = useState(false);
     const [bookingSuccess, setBookingSuccess] = useState(false);
+    const [holdId, setHoldId] = useState(null);
     const [form, setForm] = useState({
         shiftId: '',
         duration: '1 Month',
         startDate: new Date().toISOString().split('T')[0]
     });
     const [loading, setLoading] = useState(true);
-    const [bookings, setBookings] = useState([]);
+    const [freeSeatIds, setFreeSeatIds] = useState(null);
     const [rawSeats, setRawSeats] = useState([]);
     const [selectedShiftId, setSelectedShiftId] = useState('');
     const navigate = useNavigate();
@@ -44,20 +45,65 @@ export default function SeatBooking() {
 
     useEffect(() => { loadData(); }, []);
 
-    // Re-calculate seat statuses based on shift/bookings
+    // Ask library-service which seats are free for the selected shift and dates
+    useEffect(() => {
+        if (!selectedShiftId || !form.startDate) return;
+        let cancelled = false;
+        seatService.getAvailability(selectedShiftId, form.startDate, getEndDate(form.startDate))
+            .then(res => {
+                if (cancelled) return;
+                const ids = Object.values(res.data.sections).flatMap(s => s.freeSeatIds);
+                setFreeSeatIds(new Set(ids));
+            })
+            .catch(() => { if (!cancelled) setFreeSeatIds(null); });
+        return () => { cancelled = true; };
+    }, [selectedShiftId, form.startDate, rawSeats]);
+
+    // Re-calculate seat statuses based on shift availability
     useEffect(() => {
         if (rawSeats.length > 0) {
             applySeatStatus();
         }
-    }, [bookings, selectedShiftId, rawSeats]);
+    }, [freeSeatIds, rawSeats]);
+
+    // Hold the seat while the booking modal is open so nobody else can take it
+    // during payment; the hold is released when the modal closes or changes
+    useEffect(() => {
+        if (!modal || !selected || !form.shiftId) return;
+        const user = authService.getCurrentUser();
+        let heldId = null;
+        let cancelled = false;
+        bookingService.placeHold({
+            userId: user.userId,
+            seatId: selected.id,
+            shiftId: parseInt(form.shiftId),
+            startDate: form.startDate,
+            endDate: getEndDate(form.startDate)
+        }).then(res => {
+            heldId = res.data.id;
+            if (cancelled) {
+                bookingService.releaseHold(heldId).catch(() => { });
+            } else {
+                setHoldId(heldId);
+            }
+        }).catch(err => {
+            if (!cancelled) {
+                toast.error(err.response?.data?.message || "Seat is no longer available");
+            }
+        });
+        return () => {
+            cancelled = true;
+            setHoldId(null);
+            if (heldId) bookingService.releaseHold(heldId).catch(() => { });
+        };
+    }, [modal, selected, form.shiftId, form.startDate]);
 
     const loadData = async () => {
         try {
-            const [seatsRes, shiftsRes, qrRes, bookingsRes] = await Promise.all([
+            const [seatsRes, shiftsRes, qrRes] = await Promise.all([
                 seatService.getAllSeats(),
                 shiftService.getAllShifts(),
-                qrService.getQRCode().catch(() => ({ data: null })),
-                bookingService.getAllBookings().catch(() => ({ data: [] }))
+                qrService.getQRCode().catch(() => ({ data: null }))
             ]);
 
             setRawSeats(seatsRes.data);
@@ -70,7 +116,6 @@ export default function SeatBooking() {
                 setForm(prev => ({ ...prev, shiftId: defaultShift }));
             }
 
-            setBookings(bookingsRes.data || []);
             setQrCode(qrRes.data);
             setLoading(false);
         } catch (error) {
@@ -81,21 +126,14 @@ export default function SeatBooking() {
     };
 
     const applySeatStatus = () => {
+        // Without availability data fall back to the global seat status
+        if (!freeSeatIds) {
+            setAllSeats(rawSeats);
+            return;
+        }
         const updated = rawSeats.map(seat => {
-            if (seat.status !== 'AVAILABLE') return seat;
-
-            const seatBookings = bookings.filter(b => b.seatId === seat.id &&
-                ['CONFIRMED', 'PAYMENT_SUBMITTED'].includes(b.status));
-
-            let newStatus = 'AVAILABLE';
-
-            if (selectedShiftId) {
-                const shiftBooking = seatBookings.find(b => b.shiftId === parseInt(selectedShiftId));
-                if (shiftBooking) {
-                    newStatus = shiftBooking.status === 'CONFIRMED' ? 'BOOKED' : 'HOLD';
-                }
-            }
-            return { ...seat, status: newStatus };
+            if (seat.status === 'MAINTENANCE') return seat;
+            return { ...seat, status: freeSeatIds.has(seat.id) ? 'AVAILABLE' : 'BOOKED' };
         });
         setAllSeats(updated);
     };
@@ -159,11 +197,12 @@ export default function SeatBooking() {
                 shiftId: parseInt(form.shiftId),
                 bookingDate: form.startDate,
                 startDate: form.startDate,
-                endDate: new Date(new Date(form.startDate).setMonth(new Date(form.startDate).getMonth() + 1)).toISOString().split('T')[0],
+                endDate: getEndDate(form.startDate),
                 duration: form.duration,
                 totalAmount: s?.basePrice || 0,
                 status: 'PAYMENT_SUBMITTED',
-                paymentScreenshot: paymentScreenshot
+                paymentScreenshot: paymentScreenshot,
+                holdId: holdId
             });
             setBookingSuccess(true);
             setTimeout(() => {
@@ -175,6 +214,22 @@ export default function SeatBooking() {
             }, 1500);
         } catch { toast.error("Booking failed"); }
     };
+    const handleJoinWaitlist = async () => {
+        try {
+            const user = authService.getCurrentUser();
+            const res = await bookingService.joinWaitlist({
+                userId: user.userId,
+                section: room,
+                shiftId: parseInt(selectedShiftId),
+                startDate: form.startDate,
+                endDate: getEndDate(form.startDate)
+            });
+            toast.success(`You are #${res.data.position} on the waitlist for Room ${room}. A seat will be held for you when one frees up.`);
+        } catch (err) {
+            toast.error(err.response?.data?.message || "Could not join the waitlist");
+        }
+    };
+    const getEndDate = (startDate) => new Date(new Date(startDate).setMonth(new Date(startDate).getMonth() + 1)).toISOString().split('T')[0];
     const getPrice = () => { const s = shifts.find(x => x.id === parseInt(form.shiftId)); return s ? s.basePrice : 0; };
 
     const currentTheme = ROOM_THEMES[room];
@@ -238,6 +293,11 @@ export default function SeatBooking() {
                 </div>
                 <div className="room-capacity">
                     🪑 {stats.available} / {stats.total} seats available
+                    {freeSeatIds && stats.total > 0 && stats.available === 0 && (
+                        <button className="room-tab" style={{ marginLeft: '10px' }} onClick={handleJoinWaitlist}>
+                            ⏳ Join waitlist
+                        </button>
+                    )}
                 </div>
             </div>
 
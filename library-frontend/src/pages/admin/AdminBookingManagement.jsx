@@ -15,6 +15,7 @@ function AdminBookingManagement() {
     const [shifts, setShifts] = useState([]);
     const [loading, setLoading] = useState(true);
     const [selectedScreenshot, setSelectedScreenshot] = useState(null);
+    const [selectedIds, setSelectedIds] = useState([]);
     const navigate = useNavigate();
     const { isDarkMode, toggleTheme } = useTheme();
 
@@ -86,6 +87,54 @@ function AdminBookingManagement() {
         }
     };
 
+    const toggleSelected = (id) => {
+        setSelectedIds(prev => prev.includes(id) ? prev.filter(x => x !== id) : [...prev, id]);
+    };
+
+    const pendingIds = bookings.filter(b => b.status === 'PAYMENT_SUBMITTED').map(b => b.id);
+
+    const toggleAllPending = () => {
+        setSelectedIds(selectedIds.length === pendingIds.length ? [] : pendingIds);
+    };
+
+    const reportBulkOutcome = (data) => {
+        const failed = (data.outcomes || []).filter(o => !o.success);
+        if (failed.length === 0) {
+            toast.success(data.message);
+        } else {
+            toast.warning(`${data.message}. Skipped: ${failed.map(o => `#${o.bookingId}`).join(', ')}`);
+        }
+    };
+
+    const handleBulkVerify = async () => {
+        if (!window.confirm(`Verify ${selectedIds.length} payments and confirm the bookings?`)) return;
+
+        try {
+            const response = await bookingService.verifyPayments(selectedIds);
+            reportBulkOutcome(response.data);
+            setSelectedIds([]);
+            fetchBookings();
+        } catch (error) {
+            console.error('Failed to verify payments:', error);
+            toast.error(error.response?.data?.message || 'Failed to verify payments');
+        }
+    };
+
+    const handleBulkReject = async () => {
+        const reason = prompt(`Enter rejection reason for ${selectedIds.length} bookings:`);
+        if (!reason) return;
+
+        try {
+            const response = await bookingService.rejectPayments(selectedIds, reason);
+            reportBulkOutcome(response.data);
+            setSelectedIds([]);
+            fetchBookings();
+        } catch (error) {
+            console.error('Failed to reject payments:', error);
+            toast.error(error.response?.data?.message || 'Failed to reject payments');
+        }
+    };
+
     const handleCancel = async (id) => {
         if (window.confirm('Are you sure you want to cancel this booking?')) {
             try {
@@ -140,10 +189,27 @@ function AdminBookingManagement() {
                 </div>
             </div>
 
+            {selectedIds.length > 0 && (
+                <div style={{ display: 'flex', gap: '0.5rem', alignItems: 'center', marginBottom: '1rem' }}>
+                    <span>{selectedIds.length} selected</span>
+                    <button className="btn-verify" onClick={handleBulkVerify}>✓ Verify selected</button>
+                    <button className="btn-reject" onClick={handleBulkReject}>✗ Reject selected</button>
+                </div>
+            )}
+
             <div className="table-container">
                 <table className="data-table">
                     <thead>
                         <tr>
+                            <th>
+                                <input
+                                    type="checkbox"
+                                    title="Select all pending verifications"
+                                    checked={pendingIds.length > 0 && selectedIds.length === pendingIds.length}
+                                    disabled={pendingIds.length === 0}
+                                    onChange={toggleAllPending}
+                                />
+                            </th>
                             <th>ID</th>
                             <th>User Details</th>
                             <th>Contact</th>
@@ -160,6 +226,15 @@ function AdminBookingManagement() {
                             const user = getUserDetails(booking.userId);
                             return (
                                 <tr key={booking.id}>
+                                    <td>
+                                        {booking.status === 'PAYMENT_SUBMITTED' && (
+                                            <input
+                                                type="checkbox"
+                                                checked={selectedIds.includes(booking.id)}
+                                                onChange={() => toggleSelected(booking.id)}
+                                            />
+                                        )}
+                                    </td>
                                     <td>#{booking.id}</td>
                                     <td>
                                         <div style={{ fontWeight: 'bold' }}>{user.firstName} {user.lastName}</div>
@@ -177,10 +252,10 @@ function AdminBookingManagement() {
                                     <td>₹{booking.totalAmount}</td>
                                     <td>{getStatusBadge(booking.status)}</td>
                                     <td>
-                                        {booking.paymentScreenshot ? (
+                                        {booking.paymentScreenshotId ? (
                                             <button
                                                 className="view-screenshot-btn"
-                                                onClick={() => setSelectedScreenshot(booking.paymentScreenshot)}
+                                                onClick={() => setSelectedScreenshot(bookingService.getPaymentScreenshotUrl(booking.id))}
                                             >
                                                 🖼️ View
                                             </button>
@@ -134,18 +134,18 @@ export default function AdminLockerManagement() {
                                                         <span style={{ fontSize: '0.8rem', opacity: 0.7 }}>📧 {user.email || 'N/A'}</span>
                                                     </div>
                                                 </td>
-                                                <td>{booking.locker?.lockerNumber}</td>
+                                                <td>{booking.lockerNumber}</td>
                                                 <td>
                                                     {new Date(booking.endDate).getMonth() - new Date(booking.startDate).getMonth() + (12 * (new Date(booking.endDate).getFullYear() - new Date(booking.startDate).getFullYear()))} Mo
                                                     <div style={{ fontSize: '0.8rem' }}>₹{booking.amount}</div>
                                                 </td>
                                                 <td>{renderStatusBadge(booking.status)}</td>
                                                 <td>
-                                                    {booking.paymentScreenshot ? (
+                                                    {booking.hasPaymentScreenshot ? (
                                                         <button
                                                             className="btn-sm btn-outline"
                                                             style={{ border: '1px solid var(--primary-color)' }}
-                                                            onClick={() => setSelectedScreenshot(`data:image/jpeg;base64,${booking.paymentScreenshot}`)}
+                                                            onClick={() => setSelectedScreenshot(lockerService.getPaymentScreenshotUrl(booking.id))}
                                                         >
                                                             View
                                                         </button>
@@ -200,7 +200,7 @@ const AdminMenu = () => {
                                                 <td>
                                                     <div style={{ display: 'flex', alignItems: 'center', gap: '10px' }}>
                                                         <div style={{ width: '40px', height: '40px', borderRadius: '8px', background: 'rgba(255,255,255,0.1)', overflow: 'hidden', display: 'flex', alignItems: 'center', justifyContent: 'center' }}>
-                                                            {item.imageUrl ? <img src={item.imageUrl} alt="" style={{ width: '100%', height: '100%', objectFit: 'cover' }} /> : '🍔'}
+                                                            {item.imageUrl ? <img src={orderingService.getMenuImageUrl(item.imageUrl)} alt="" style={{ width: '100%', height: '100%', objectFit: 'cover' }} /> : '🍔'}
                                                         </div>
                                                         <span style={{ fontWeight: '500' }}>{item.name}</span>
                                                     </div>
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useTheme } from '../../context/ThemeContext';
 import seatService from '../../services/seatService';
@@ -23,23 +23,38 @@ function AdminSeatManagement() {
     const navigate = useNavigate();
     const { isDarkMode, toggleTheme } = useTheme();
 
+    const unsubscribeRef = useRef(null);
+
     useEffect(() => {
         fetchAllData();
-        const interval = setInterval(fetchLiveData, 10000); // Poll live data every 10s
-        return () => clearInterval(interval);
+        return () => unsubscribeRef.current && unsubscribeRef.current();
     }, []);
 
+    // Apply booking changes from the live feed instead of re-polling the whole table
+    const applyBookingChange = (event) => {
+        setBookings(prev => {
+            const rest = prev.filter(b => b.id !== event.bookingId);
+            return event.type === 'DELETED' ? rest : [...rest, event.booking];
+        });
+    };
+
+    const subscribeToBookings = (cursor) => {
+        if (unsubscribeRef.current) unsubscribeRef.current();
+        unsubscribeRef.current = bookingService.subscribeToChanges(cursor, applyBookingChange, fetchLiveData);
+    };
+
     const fetchAllData = async () => {
         try {
-            const [seatsRes, bookingsRes, usersRes, shiftsRes] = await Promise.all([
+            const [seatsRes, snapshotRes, usersRes, shiftsRes] = await Promise.all([
                 seatService.getAllSeats(),
-                bookingService.getAllBookings(),
+                bookingService.getSnapshot(),
                 userService.getAllUsers(),
                 shiftService.getAllShifts()
             ]);
 
             setSeats(seatsRes.data);
-            setBookings(bookingsRes.data);
+            setBookings(snapshotRes.data.bookings);
+            subscribeToBookings(snapshotRes.data.cursor);
             setUsers(usersRes.data);
             setShifts(shiftsRes.data);
 
@@ -60,11 +75,12 @@ function AdminSeatManagement() {
 
     const fetchLiveData = async () => {
         try {
-            // Only fetch volatile data (bookings) frequently
-            const bookingsRes = await bookingService.getAllBookings();
-            setBookings(bookingsRes.data);
+            // Reload bookings and resume the live feed from the new snapshot
+            const snapshotRes = await bookingService.getSnapshot();
+            setBookings(snapshotRes.data.bookings);
+            subscribeToBookings(snapshotRes.data.cursor);
         } catch (error) {
-            console.error("Error polling bookings:", error);
+            console.error("Error reloading bookings:", error);
         }
     };
 
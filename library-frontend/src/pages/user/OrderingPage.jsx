@@ -192,7 +192,7 @@ const OrderingPage = () => {
                             <div key={item.id} style={{ display: 'flex', justifyContent: 'space-between', padding: '12px 0', borderBottom: '1px solid rgba(255,255,255,0.05)' }}>
                                 <div style={{ display: 'flex', gap: '15px', alignItems: 'center' }}>
                                     <div style={{ width: '40px', height: '40px', borderRadius: '8px', background: 'rgba(255,255,255,0.1)', overflow: 'hidden' }}>
-                                        {item.imageUrl && <img src={item.imageUrl} alt="" style={{ width: '100%', height: '100%', objectFit: 'cover' }} />}
+                                        {item.imageUrl && <img src={orderingService.getMenuImageUrl(item.imageUrl)} alt="" style={{ width: '100%', height: '100%', objectFit: 'cover' }} />}
                                     </div>
                                     <span style={{ color: '#e2e8f0' }}>{item.name} <span style={{ color: '#94a3b8', fontSize: '0.9em' }}>x{qty}</span></span>
                                 </div>
@@ -345,7 +345,7 @@ const OrderingPage = () => {
                             <div key={item.id} className="glass-panel animate-fade-in" style={{ overflow: 'hidden', display: 'flex', flexDirection: 'column' }}>
                                 <div style={{ height: '180px', position: 'relative', background: '#1e293b' }}>
                                     {item.imageUrl ? (
-                                        <img src={item.imageUrl} alt={item.name} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                                        <img src={orderingService.getMenuImageUrl(item.imageUrl)} alt={item.name} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                                     ) : (
                                         <div style={{ display: 'flex', alignItems: 'center', justifyContent: 'center', height: '100%', fontSize: '3em' }}>🍔</div>
                                     )}
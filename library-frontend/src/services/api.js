@@ -1,6 +1,10 @@
 import axios from 'axios';
+import { toast } from 'react-toastify';
 import config from '../config';
 
+const WAITING_ROOM_HEADER = 'X-Waiting-Room-Token';
+const WAITING_ROOM_TOAST = 'waiting-room';
+
 const api = axios.create({
     baseURL: config.API_BASE_URL,
     timeout: 120000, // 120 seconds to match Gateway timeout (Render cold starts)
@@ -23,8 +27,31 @@ api.interceptors.request.use(
 
 // Response interceptor
 api.interceptors.response.use(
-    (response) => response,
-    (error) => {
+    (response) => {
+        if (response.config.headers?.[WAITING_ROOM_HEADER]) {
+            toast.dismiss(WAITING_ROOM_TOAST);
+        }
+        return response;
+    },
+    async (error) => {
+        // Gateway waiting room: wait our turn, then resend with the ticket
+        if (error.response?.status === 503 && error.response.data?.token) {
+            const { token, position, estimatedWaitSeconds } = error.response.data;
+            const message = `High demand right now: you are #${position} in line (about ${estimatedWaitSeconds}s)`;
+            if (toast.isActive(WAITING_ROOM_TOAST)) {
+                toast.update(WAITING_ROOM_TOAST, { render: message });
+            } else {
+                toast.info(message, { toastId: WAITING_ROOM_TOAST, autoClose: false });
+            }
+            const retryAfter = parseInt(error.response.headers['retry-after'], 10) || 2;
+            await new Promise(resolve => setTimeout(resolve, retryAfter * 1000));
+            error.config.headers[WAITING_ROOM_HEADER] = token;
+            return api(error.config);
+        }
+        if (error.response?.status === 429) {
+            const retryAfter = parseInt(error.response.headers['retry-after'], 10) || 1;
+            toast.warn(`Too many requests, please try again in ${retryAfter}s`, { toastId: 'rate-limited' });
+        }
         if (error.response?.status === 401) {
             localStorage.removeItem('token');
             localStorage.removeItem('user');
@@ -34,4 +61,24 @@ api.interceptors.response.use(
     }
 );
 
+// POSTs a payment-bearing request with an Idempotency-Key header and resends it
+// with the same key if the connection drops, so a retry never books twice
+export const postIdempotent = async (url, data, options = {}, retries = 2) => {
+    const key = window.crypto?.randomUUID
+        ? window.crypto.randomUUID()
+        : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+    for (let attempt = 0; ; attempt++) {
+        try {
+            return await api.post(url, data, {
+                ...options,
+                headers: { ...options.headers, 'Idempotency-Key': key }
+            });
+        } catch (error) {
+            if (error.response || attempt >= retries) {
+                throw error;
+            }
+        }
+    }
+};
+
 export default api;
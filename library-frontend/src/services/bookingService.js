@@ -1,14 +1,43 @@
-import api from './api';
+import api, { postIdempotent } from './api';
 import config from '../config';
 
 const bookingService = {
     getAllBookings: () => api.get(config.API_ENDPOINTS.BOOKINGS),
 
+    // All bookings plus the change feed cursor they are current as of
+    getSnapshot: () => api.get(`${config.API_ENDPOINTS.BOOKINGS}/snapshot`),
+
+    // Opens the booking change feed after `cursor`. onChange receives each event;
+    // onReset is called when the feed cannot resume and a new snapshot is needed.
+    subscribeToChanges: (cursor, onChange, onReset) => {
+        const source = new EventSource(`${config.API_ENDPOINTS.BOOKINGS}/events?since=${encodeURIComponent(cursor)}`);
+        source.addEventListener('booking', (e) => onChange(JSON.parse(e.data)));
+        source.addEventListener('reset', () => {
+            source.close();
+            onReset();
+        });
+        return () => source.close();
+    },
+
     getBookingById: (id) => api.get(`${config.API_ENDPOINTS.BOOKINGS}/${id}`),
 
     getUserBookings: (userId) => api.get(`${config.API_ENDPOINTS.BOOKINGS}/user/${userId}`),
 
-    createBooking: (bookingData) => api.post(config.API_ENDPOINTS.BOOKINGS, bookingData),
+    getPaymentScreenshotUrl: (id) => `${config.API_ENDPOINTS.BOOKINGS}/${id}/payment-screenshot`,
+
+    createBooking: (bookingData) => postIdempotent(config.API_ENDPOINTS.BOOKINGS, bookingData),
+
+    // Short-lived seat holds; pass the hold id as holdId when creating the booking
+    placeHold: (holdData) => api.post(`${config.API_ENDPOINTS.BOOKINGS}/holds`, holdData),
+
+    releaseHold: (holdId) => api.delete(`${config.API_ENDPOINTS.BOOKINGS}/holds/${holdId}`),
+
+    // Waitlist for a full seat or section; a promoted entry carries the holdId of the seat held for the user
+    joinWaitlist: (entry) => api.post(`${config.API_ENDPOINTS.BOOKINGS}/waitlist`, entry),
+
+    getWaitlistEntries: (userId) => api.get(`${config.API_ENDPOINTS.BOOKINGS}/waitlist/user/${userId}`),
+
+    leaveWaitlist: (entryId) => api.delete(`${config.API_ENDPOINTS.BOOKINGS}/waitlist/${entryId}`),
 
     updateBooking: (id, bookingData) => api.put(`${config.API_ENDPOINTS.BOOKINGS}/${id}`, bookingData),
 
@@ -19,7 +48,13 @@ const bookingService = {
     // Payment verification
     verifyPayment: (id) => api.put(`${config.API_ENDPOINTS.BOOKINGS}/${id}/verify-payment`),
 
-    rejectPayment: (id, reason) => api.put(`${config.API_ENDPOINTS.BOOKINGS}/${id}/reject-payment`, { reason })
+    rejectPayment: (id, reason) => api.put(`${config.API_ENDPOINTS.BOOKINGS}/${id}/reject-payment`, { reason }),
+
+    // Bulk review; the response lists an outcome per booking id
+    verifyPayments: (bookingIds) => api.put(`${config.API_ENDPOINTS.BOOKINGS}/verify-payments`, { bookingIds }),
+
+    rejectPayments: (bookingIds, reason) =>
+        api.put(`${config.API_ENDPOINTS.BOOKINGS}/reject-payments`, { bookingIds, reason })
 };
 
 export default bookingService;
@@ -1,4 +1,4 @@
-import api from './api';
+import api, { postIdempotent } from './api';
 import config from '../config';
 
 // Add LOCKERS endpoint to config if not exists, but for now hardcode or assume /api/lockers
@@ -17,7 +17,7 @@ const lockerService = {
         if (bookingData.paymentScreenshot) {
             formData.append('paymentScreenshot', bookingData.paymentScreenshot);
         }
-        return api.post(`${LOCKER_API}/book`, formData, {
+        return postIdempotent(`${LOCKER_API}/book`, formData, {
             headers: {
                 'Content-Type': 'multipart/form-data'
             }
@@ -30,9 +30,13 @@ const lockerService = {
 
     getUserBookings: (userId) => api.get(`${LOCKER_API}/user/${userId}`),
 
+    getPaymentScreenshotUrl: (bookingId) => `${config.API_BASE_URL}${LOCKER_API}/bookings/${bookingId}/payment-screenshot`,
+
     updatePrice: (lockerId, newPrice) => api.put(`${LOCKER_API}/${lockerId}/price`, null, { params: { newPrice } }),
 
-    cancelBooking: (bookingId) => api.put(`${LOCKER_API}/cancel/${bookingId}`)
+    cancelBooking: (bookingId) => api.put(`${LOCKER_API}/cancel/${bookingId}`),
+
+    setAutoRenew: (bookingId, enabled) => api.put(`${LOCKER_API}/auto-renew/${bookingId}`, null, { params: { enabled } })
 };
 
 export default lockerService;
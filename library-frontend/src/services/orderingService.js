@@ -1,4 +1,5 @@
-import api from './api';
+import api, { postIdempotent } from './api';
+import config from '../config';
 
 const MENU_API_URL = '/menu';
 const ORDER_API_URL = '/orders';
@@ -49,7 +50,7 @@ const placeOrder = async (userId, userName, userEmail, userPhone, seatNumber, it
         formData.append('paymentScreenshot', screenshotFile);
     }
 
-    const response = await api.post(ORDER_API_URL, formData, {
+    const response = await postIdempotent(ORDER_API_URL, formData, {
         headers: {
             'Content-Type': 'multipart/form-data',
         },
@@ -74,8 +75,13 @@ const updateOrderStatus = async (id, status) => {
     return response.data;
 };
 
+// Uploaded menu images are served by the gateway under /menu/images/<hash>
+const getMenuImageUrl = (imageUrl) =>
+    imageUrl && imageUrl.startsWith('/menu/images/') ? `${config.API_BASE_URL}${imageUrl}` : imageUrl;
+
 export default {
     getAvailableMenu,
+    getMenuImageUrl,
     getAllMenu,
     addMenuItem,
     updateItemAvailability,
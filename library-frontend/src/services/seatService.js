@@ -8,6 +8,10 @@ const seatService = {
 
     getAvailableSeats: () => api.get(`${config.API_ENDPOINTS.SEATS}/available`),
 
+    // Free seats per section for a shift over [date, endDate], derived from bookings
+    getAvailability: (shiftId, date, endDate) =>
+        api.get(`${config.API_ENDPOINTS.SEATS}/availability`, { params: { shiftId, date, endDate } }),
+
     createSeat: (seatData) => api.post(config.API_ENDPOINTS.SEATS, seatData),
 
     updateSeat: (id, seatData) => api.put(`${config.API_ENDPOINTS.SEATS}/${id}`, seatData),
@@ -0,0 +1,19 @@
+package com.library.library.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@FeignClient(name = "booking-service")
+public interface BookingClient {
+
+    @GetMapping("/api/v1/bookings/occupied-seats")
+    Set<Long> getOccupiedSeatIds(
+            @RequestParam("shiftId") Long shiftId,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate);
+}
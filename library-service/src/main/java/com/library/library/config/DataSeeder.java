@@ -5,6 +5,8 @@ import com.library.library.model.Seat.SeatStatus;
 import com.library.library.model.Shift;
 import com.library.library.repository.SeatRepository;
 import com.library.library.repository.ShiftRepository;
+import com.library.library.service.LockerService;
+import com.library.library.service.ShiftOverlapMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -29,6 +31,8 @@ public class DataSeeder implements CommandLineRunner {
 
     private final SeatRepository seatRepository;
     private final ShiftRepository shiftRepository;
+    private final ShiftOverlapMatrix shiftOverlapMatrix;
+    private final LockerService lockerService;
 
     // Configuration
     private static final String[] SECTIONS = { "A", "B", "C", "D", "E" };
@@ -36,15 +40,20 @@ public class DataSeeder implements CommandLineRunner {
     private static final int CHAIRS_PER_TABLE = 6;
     private static final int TEACHER_SEATS = 8;
 
-    public DataSeeder(SeatRepository seatRepository, ShiftRepository shiftRepository) {
+    public DataSeeder(SeatRepository seatRepository, ShiftRepository shiftRepository,
+            ShiftOverlapMatrix shiftOverlapMatrix, LockerService lockerService) {
         this.seatRepository = seatRepository;
         this.shiftRepository = shiftRepository;
+        this.shiftOverlapMatrix = shiftOverlapMatrix;
+        this.lockerService = lockerService;
     }
 
     @Override
     public void run(String... args) {
         seedShifts();
         seedSeats();
+        // One locker per seat; later seat additions sync again from SeatService
+        lockerService.syncLockersWithSeats();
     }
 
     private void seedShifts() {
@@ -83,6 +92,7 @@ public class DataSeeder implements CommandLineRunner {
             fullDay.setDescription("Full day access - 6 AM to 11 PM");
             shiftRepository.save(fullDay);
 
+            shiftOverlapMatrix.rebuild();
             log.info("✅ Seeded 4 shifts: Morning, Afternoon, Evening, Full Day");
         } else {
             log.info("Shifts already exist, skipping seed");
@@ -0,0 +1,172 @@
+package com.library.library.config;
+
+import com.library.library.model.IdempotencyRecord;
+import com.library.library.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Honours the Idempotency-Key header on locker bookings and food orders.
+ *
+ * Runs before the controller, so a retry of a request that already succeeded
+ * is answered with the stored response without storing its payment screenshot
+ * again. The key is claimed in the shared table while the request runs, so a
+ * concurrent retry on any instance gets 409, and a key reused with different
+ * parameters or files gets 422. Only successful responses are recorded; a
+ * failed request changed nothing and releases its key to be run again.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/api/lockers/book", "/orders");
+
+    private final IdempotencyStore store;
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !IDEMPOTENT_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeMessage(response, HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key header");
+            return;
+        }
+        String scope = request.getMethod() + " " + request.getRequestURI();
+        String requestHash = requestHash(request);
+
+        IdempotencyRecord previous = store.find(scope, key);
+        if (previous == null) {
+            IdempotencyRecord pending = store.begin(scope, key, requestHash);
+            if (pending != null) {
+                run(request, response, chain, pending);
+                return;
+            }
+            // Claimed by a concurrent request, possibly on another instance
+            previous = store.find(scope, key);
+        }
+        if (previous != null && previous.getRequestHash() != null
+                && !previous.getRequestHash().equals(requestHash)) {
+            writeMessage(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "This Idempotency-Key was already used with a different request");
+        } else if (previous == null || previous.isPending()) {
+            writeMessage(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+        } else {
+            replay(response, previous);
+        }
+    }
+
+    private void run(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            IdempotencyRecord pending) throws ServletException, IOException {
+        boolean completed = false;
+        try {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+                store.complete(pending, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray());
+                completed = true;
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            if (!completed) {
+                store.abandon(pending);
+            }
+        }
+    }
+
+    // Both endpoints take form parameters plus uploaded files; the container
+    // parses and keeps them, so hashing here does not consume the request
+    private static String requestHash(HttpServletRequest request) throws ServletException, IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            update(digest, parameter.getKey());
+            for (String value : parameter.getValue()) {
+                update(digest, value);
+            }
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+            List<Part> files = new ArrayList<>();
+            for (Part part : request.getParts()) {
+                if (part.getSubmittedFileName() != null) {
+                    files.add(part);
+                }
+            }
+            files.sort(Comparator.comparing(Part::getName));
+            for (Part file : files) {
+                update(digest, file.getName());
+                try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+                digest.update((byte) 0);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyRecord record) throws IOException {
+        response.setStatus(record.getStatusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getBody() != null) {
+            response.setContentLength(record.getBody().length);
+            response.getOutputStream().write(record.getBody());
+        }
+    }
+
+    private static void writeMessage(HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,9 +2,11 @@ package com.library.library.controller;
 
 import com.library.library.model.Expenditure;
 import com.library.library.service.FinanceService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -37,13 +39,22 @@ public class FinanceController {
 
     // Stats Endpoint (Returns Expenditures Total + Library Sources Revenues)
     // Seat Revenue must be fetched from Booking Service separately by the frontend.
+    // Optional from/to restrict revenues to a date range
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getFinanceStats() {
-        Map<String, Double> revenues = financeService.getLibraryRevenueBreakdown();
+    public ResponseEntity<Map<String, Object>> getFinanceStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Map<String, Double> revenues = financeService.getLibraryRevenueBreakdown(from, to);
         Double totalExpenditure = financeService.getTotalExpenditure();
 
         return ResponseEntity.ok(Map.of(
                 "revenues", revenues,
                 "totalExpenditure", totalExpenditure));
     }
+
+    // Recompute revenue rollups from the source tables (backfill / repair)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(Map.of("cells", financeService.rebuildRevenueRollups()));
+    }
 }
@@ -1,12 +1,17 @@
 package com.library.library.controller;
 
+import com.library.library.dto.LockerBookingView;
 import com.library.library.model.Locker;
 import com.library.library.model.LockerBooking;
+import com.library.library.service.ImageTypes;
 import com.library.library.service.LockerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -67,16 +72,41 @@ public class LockerController {
         }
     }
 
+    @PutMapping("/auto-renew/{bookingId}")
+    public ResponseEntity<?> setAutoRenew(@PathVariable Long bookingId, @RequestParam boolean enabled) {
+        try {
+            LockerBooking booking = lockerService.setAutoRenew(bookingId, enabled);
+            return ResponseEntity.ok(booking);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/pending")
-    public List<LockerBooking> getAllBookings() {
+    public List<LockerBookingView> getAllBookings() {
         return lockerService.getAllBookings();
     }
 
     @GetMapping("/user/{userId}")
-    public List<LockerBooking> getUserBookings(@PathVariable Long userId) {
+    public List<LockerBookingView> getUserBookings(@PathVariable Long userId) {
         return lockerService.getUserBookings(userId);
     }
 
+    @GetMapping("/bookings/{bookingId}/payment-screenshot")
+    public ResponseEntity<byte[]> getPaymentScreenshot(@PathVariable Long bookingId) {
+        try {
+            byte[] image = lockerService.getPaymentScreenshot(bookingId);
+            // Screenshots are never modified once stored, so clients may cache them
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(ImageTypes.detect(image)))
+                    .header("X-Content-Type-Options", "nosniff")
+                    .cacheControl(CacheControl.maxAge(Duration.ofDays(30)).cachePrivate())
+                    .body(image);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PutMapping("/{id}/price")
     public Locker updateLockerPrice(@PathVariable Long id, @RequestParam Double newPrice) {
         return lockerService.updateLockerPrice(id, newPrice);
@@ -1,12 +1,19 @@
 package com.library.library.controller;
 
+import com.library.library.dto.MenuItemView;
 import com.library.library.model.MenuItem;
+import com.library.library.service.MenuCatalog;
 import com.library.library.service.OrderingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -16,14 +23,46 @@ public class MenuController {
     @Autowired
     private OrderingService service;
 
+    // The catalog is revalidated on every load and answered with 304 while unchanged
     @GetMapping
-    public ResponseEntity<List<MenuItem>> getAllMenuItems() {
-        return ResponseEntity.ok(service.getAllMenuItems());
+    public ResponseEntity<List<MenuItemView>> getAllMenuItems(WebRequest request) {
+        MenuCatalog.Snapshot snapshot = service.getMenuSnapshot();
+        return catalog(request, "\"" + snapshot.getEtag() + "\"", snapshot.getAll());
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<MenuItem>> getAvailableMenuItems() {
-        return ResponseEntity.ok(service.getAvailableMenuItems());
+    public ResponseEntity<List<MenuItemView>> getAvailableMenuItems(WebRequest request) {
+        MenuCatalog.Snapshot snapshot = service.getMenuSnapshot();
+        return catalog(request, "\"" + snapshot.getEtag() + "-available\"", snapshot.getAvailable());
+    }
+
+    // Addressed by the hash of their bytes, so a given URL never changes
+    @GetMapping("/images/{hash}")
+    public ResponseEntity<byte[]> getImage(@PathVariable String hash, WebRequest request) {
+        MenuCatalog.Image image = service.getMenuSnapshot().getImage(hash);
+        if (image == null) {
+            return ResponseEntity.notFound().build();
+        }
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+        String etag = "\"" + image.getHash() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .header("X-Content-Type-Options", "nosniff")
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(image.getData());
+    }
+
+    private static ResponseEntity<List<MenuItemView>> catalog(WebRequest request, String etag,
+            List<MenuItemView> items) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(items);
     }
 
     @PostMapping
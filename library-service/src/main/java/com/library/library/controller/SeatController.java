@@ -1,16 +1,22 @@
 package com.library.library.controller;
 
+import com.library.library.dto.SeatAvailability;
+import com.library.library.dto.SeatStatusUpdate;
 import com.library.library.model.Seat;
+import com.library.library.service.SeatAvailabilityService;
 import com.library.library.service.SeatService;
 import com.library.library.config.DataSeeder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import feign.FeignException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,10 +26,13 @@ import java.util.Map;
 public class SeatController {
 
     private final SeatService seatService;
+    private final SeatAvailabilityService seatAvailabilityService;
     private final DataSeeder dataSeeder;
 
-    public SeatController(SeatService seatService, DataSeeder dataSeeder) {
+    public SeatController(SeatService seatService, SeatAvailabilityService seatAvailabilityService,
+            DataSeeder dataSeeder) {
         this.seatService = seatService;
+        this.seatAvailabilityService = seatAvailabilityService;
         this.dataSeeder = dataSeeder;
     }
 
@@ -51,6 +60,24 @@ public class SeatController {
         return ResponseEntity.ok(seatService.getAvailableSeats());
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Get the free seats per section for a shift on a date (or date range)")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam Long shiftId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            SeatAvailability availability = seatAvailabilityService.getAvailability(
+                    shiftId, date, endDate != null ? endDate : date);
+            return ResponseEntity.ok(availability);
+        } catch (FeignException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Booking data is temporarily unavailable"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @PostMapping
     @Operation(summary = "Create new seat")
     public ResponseEntity<Seat> createSeat(@RequestBody Seat seat) {
@@ -84,6 +111,19 @@ public class SeatController {
         }
     }
 
+    @PostMapping("/status/batch")
+    @Operation(summary = "Update the status of many seats in one batch")
+    public ResponseEntity<?> updateSeatStatuses(@RequestBody List<SeatStatusUpdate> updates) {
+        try {
+            List<Long> notFound = seatService.updateSeatStatuses(updates);
+            return ResponseEntity.ok(Map.of(
+                    "requested", updates.size(),
+                    "notFound", notFound));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @PostMapping("/reset")
     @Operation(summary = "Reset all seats - Deletes all and re-seeds with 280 seats (56 per room)")
     public ResponseEntity<Map<String, Object>> resetSeats() {
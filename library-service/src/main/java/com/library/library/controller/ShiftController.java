@@ -1,5 +1,6 @@
 package com.library.library.controller;
 
+import com.library.library.dto.ShiftOverlaps;
 import com.library.library.model.Shift;
 import com.library.library.service.ShiftService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +28,12 @@ public class ShiftController {
         return ResponseEntity.ok(shiftService.getAllShifts());
     }
 
+    @GetMapping("/overlaps")
+    @Operation(summary = "Get, for each shift, the shifts whose hours overlap it")
+    public ResponseEntity<ShiftOverlaps> getShiftOverlaps() {
+        return ResponseEntity.ok(shiftService.getShiftOverlaps());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get shift by ID")
     public ResponseEntity<Shift> getShiftById(@PathVariable Long id) {
@@ -0,0 +1,98 @@
+package com.library.library.dto;
+
+import com.library.library.model.LockerBooking.LockerBookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A locker booking as listed to users and admins: the booking with its
+ * locker's number and price, and whether a payment screenshot exists instead
+ * of the screenshot itself, which is served on its own.
+ */
+public class LockerBookingView {
+
+    private final Long id;
+    private final Long userId;
+    private final Long lockerId;
+    private final String lockerNumber;
+    private final Double lockerPrice;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Double amount;
+    private final LockerBookingStatus status;
+    private final LocalDateTime createdAt;
+    private final Boolean autoRenew;
+    private final Long renewalOf;
+    private final boolean hasPaymentScreenshot;
+
+    public LockerBookingView(Long id, Long userId, Long lockerId, String lockerNumber, Double lockerPrice,
+            LocalDate startDate, LocalDate endDate, Double amount, LockerBookingStatus status,
+            LocalDateTime createdAt, Boolean autoRenew, Long renewalOf, Boolean hasPaymentScreenshot) {
+        this.id = id;
+        this.userId = userId;
+        this.lockerId = lockerId;
+        this.lockerNumber = lockerNumber;
+        this.lockerPrice = lockerPrice;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.amount = amount;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.autoRenew = autoRenew;
+        this.renewalOf = renewalOf;
+        this.hasPaymentScreenshot = Boolean.TRUE.equals(hasPaymentScreenshot);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getLockerId() {
+        return lockerId;
+    }
+
+    public String getLockerNumber() {
+        return lockerNumber;
+    }
+
+    public Double getLockerPrice() {
+        return lockerPrice;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public LockerBookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Boolean getAutoRenew() {
+        return autoRenew;
+    }
+
+    public Long getRenewalOf() {
+        return renewalOf;
+    }
+
+    public boolean isHasPaymentScreenshot() {
+        return hasPaymentScreenshot;
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.library.dto;
+
+/**
+ * A menu item as listed in the catalog. Uploaded images are replaced by the
+ * path of their cached binary under {@code /menu/images/}.
+ */
+public class MenuItemView {
+
+    private final Long id;
+    private final String name;
+    private final String type;
+    private final Double price;
+    private final String imageUrl;
+    private final boolean available;
+
+    public MenuItemView(Long id, String name, String type, Double price, String imageUrl, boolean available) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.available = available;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
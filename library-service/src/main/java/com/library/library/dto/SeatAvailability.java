@@ -0,0 +1,83 @@
+package com.library.library.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which seats are free for one shift over a date range, grouped by section.
+ */
+public class SeatAvailability {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long shiftId;
+    private int totalSeats;
+    private int availableSeats;
+    private Map<String, Section> sections;
+
+    public SeatAvailability() {
+    }
+
+    public SeatAvailability(LocalDate startDate, LocalDate endDate, Long shiftId, int totalSeats,
+            int availableSeats, Map<String, Section> sections) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.shiftId = shiftId;
+        this.totalSeats = totalSeats;
+        this.availableSeats = availableSeats;
+        this.sections = sections;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Long getShiftId() {
+        return shiftId;
+    }
+
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public Map<String, Section> getSections() {
+        return sections;
+    }
+
+    public static class Section {
+
+        private int total;
+        private int available;
+        private List<Long> freeSeatIds;
+
+        public Section() {
+        }
+
+        public Section(int total, int available, List<Long> freeSeatIds) {
+            this.total = total;
+            this.available = available;
+            this.freeSeatIds = freeSeatIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+
+        public List<Long> getFreeSeatIds() {
+            return freeSeatIds;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.library.library.dto;
+
+import com.library.library.model.Seat.SeatStatus;
+
+/**
+ * One (seatId, status) pair of a bulk seat status update.
+ */
+public class SeatStatusUpdate {
+
+    private Long seatId;
+    private SeatStatus status;
+
+    public SeatStatusUpdate() {
+    }
+
+    public SeatStatusUpdate(Long seatId, SeatStatus status) {
+        this.seatId = seatId;
+        this.status = status;
+    }
+
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    public void setSeatId(Long seatId) {
+        this.seatId = seatId;
+    }
+
+    public SeatStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SeatStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,30 @@
+package com.library.library.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * For each shift, the shifts whose hours overlap it (itself included), so a
+ * booking on one of them conflicts with a booking on any other.
+ */
+public class ShiftOverlaps {
+
+    private long version;
+    private Map<Long, List<Long>> overlaps;
+
+    public ShiftOverlaps() {
+    }
+
+    public ShiftOverlaps(long version, Map<Long, List<Long>> overlaps) {
+        this.version = version;
+        this.overlaps = overlaps;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<Long, List<Long>> getOverlaps() {
+        return overlaps;
+    }
+}
@@ -0,0 +1,66 @@
+package com.library.library.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request sent with an Idempotency-Key header. The row is inserted as pending
+ * when the request starts and, once it succeeds, holds the response so that a
+ * retry with the same key is answered without running it again.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "idempotency_records", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_scope_key", columnNames = { "scope", "idempotency_key" })
+}, indexes = {
+        @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // HTTP method and path the key was used on
+    @Column(nullable = false, length = 200)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request parameters and files, hex encoded
+    @Column(length = 64)
+    private String requestHash;
+
+    // 0 while the request is still running
+    @Column(nullable = false)
+    private int statusCode;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public IdempotencyRecord(String scope, String idempotencyKey, String requestHash, LocalDateTime expiresAt) {
+        this.scope = scope;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isPending() {
+        return statusCode == 0;
+    }
+}
@@ -5,7 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "locker_bookings")
+@Table(name = "locker_bookings", indexes = @Index(name = "idx_locker_bookings_status_locker", columnList = "status, locker_id"))
 public class LockerBooking {
 
     @Id
@@ -38,6 +38,13 @@ public class LockerBooking {
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Book the next term when this one ends
+    private Boolean autoRenew = false;
+
+    // The booking this one renews; unique, so a term is renewed at most once
+    @Column(unique = true)
+    private Long renewalOf;
+
     public enum LockerBookingStatus {
         PENDING,
         ACTIVE,
@@ -122,6 +129,22 @@ public class LockerBooking {
         this.createdAt = createdAt;
     }
 
+    public Boolean getAutoRenew() {
+        return autoRenew;
+    }
+
+    public void setAutoRenew(Boolean autoRenew) {
+        this.autoRenew = autoRenew;
+    }
+
+    public Long getRenewalOf() {
+        return renewalOf;
+    }
+
+    public void setRenewalOf(Long renewalOf) {
+        this.renewalOf = renewalOf;
+    }
+
     public String getPaymentScreenshot() {
         return paymentScreenshot;
     }
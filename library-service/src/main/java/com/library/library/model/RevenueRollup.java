@@ -0,0 +1,44 @@
+package com.library.library.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * Library income per day and source (LOCKER, PRINT, ORDER), maintained
+ * incrementally as locker bookings, print requests and orders move in and
+ * out of their revenue-counting statuses. Kept apart from booking-service's
+ * rollups, which share the database.
+ */
+@Entity
+@Data
+@Table(name = "library_revenue_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_library_revenue_rollup_day_source_shift", columnNames = { "day", "source", "shift_id" }))
+public class RevenueRollup {
+
+    public static final String SOURCE_LOCKER = "LOCKER";
+    public static final String SOURCE_PRINT = "PRINT";
+    public static final String SOURCE_ORDER = "ORDER";
+
+    // Library income is not tied to a shift
+    public static final long NO_SHIFT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = 20)
+    private String source;
+
+    @Column(nullable = false)
+    private Long shiftId = NO_SHIFT;
+
+    @Column(nullable = false)
+    private Double amount = 0.0;
+
+    @Column(nullable = false)
+    private Long entries = 0L;
+}
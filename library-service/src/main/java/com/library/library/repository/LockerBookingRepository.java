@@ -1,10 +1,16 @@
 package com.library.library.repository;
 
+import com.library.library.dto.LockerBookingView;
 import com.library.library.model.LockerBooking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LockerBookingRepository extends JpaRepository<LockerBooking, Long> {
@@ -12,7 +18,52 @@ public interface LockerBookingRepository extends JpaRepository<LockerBooking, Lo
 
     List<LockerBooking> findByLockerId(Long lockerId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT SUM(lb.amount) FROM LockerBooking lb WHERE lb.status = :status")
-    Double sumAmountByStatus(
-            @org.springframework.data.repository.query.Param("status") LockerBooking.LockerBookingStatus status);
+    // Listings: one joined query, and the screenshot only tested for presence
+    String VIEW_SELECT = "SELECT new com.library.library.dto.LockerBookingView(b.id, b.userId, l.id, "
+            + "l.lockerNumber, l.price, b.startDate, b.endDate, b.amount, b.status, b.createdAt, b.autoRenew, "
+            + "b.renewalOf, CASE WHEN b.paymentScreenshot IS NOT NULL THEN true ELSE false END) "
+            + "FROM LockerBooking b JOIN b.locker l ";
+
+    @Query(VIEW_SELECT + "ORDER BY b.id DESC")
+    List<LockerBookingView> findAllViews();
+
+    @Query(VIEW_SELECT + "WHERE b.userId = :userId ORDER BY b.id DESC")
+    List<LockerBookingView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT b.paymentScreenshot FROM LockerBooking b WHERE b.id = :id")
+    Optional<String> findPaymentScreenshot(@Param("id") Long id);
+
+    // Rows of { lockerId, bookingId, userId }, without the payment screenshots
+    @Query("SELECT b.locker.id, b.id, b.userId FROM LockerBooking b WHERE b.status IN :statuses")
+    List<Object[]> findHolders(@Param("statuses") List<LockerBooking.LockerBookingStatus> statuses);
+
+    // Rows of { bookingId, endDate }
+    @Query("SELECT b.id, b.endDate FROM LockerBooking b WHERE b.status IN :statuses")
+    List<Object[]> findEndDates(@Param("statuses") List<LockerBooking.LockerBookingStatus> statuses);
+
+    /**
+     * Locks the bookings among {@code ids} that still hold their locker and
+     * have ended before {@code today}. Rows of { bookingId, lockerId, userId,
+     * startDate, endDate, status, autoRenew, locker price }.
+     */
+    @Query(value = "SELECT b.id, b.locker_id, b.user_id, b.start_date, b.end_date, b.status, b.auto_renew, l.price "
+            + "FROM locker_bookings b JOIN lockers l ON l.id = b.locker_id "
+            + "WHERE b.id IN (:ids) AND b.status IN ('PENDING', 'ACTIVE') AND b.end_date < :today "
+            + "FOR UPDATE OF b",
+            nativeQuery = true)
+    List<Object[]> lockEnded(@Param("ids") List<Long> ids, @Param("today") LocalDate today);
+
+    // Bookings in status :matched become :ifMatched, all others :otherwise
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LockerBooking b SET b.status = CASE WHEN b.status = :matched THEN :ifMatched ELSE :otherwise END "
+            + "WHERE b.id IN :ids")
+    int transitionAll(@Param("ids") List<Long> ids, @Param("matched") LockerBooking.LockerBookingStatus matched,
+            @Param("ifMatched") LockerBooking.LockerBookingStatus ifMatched,
+            @Param("otherwise") LockerBooking.LockerBookingStatus otherwise);
+
+    // ACTIVE bookings expire; PENDING ones were never approved and are cancelled
+    default int endAll(List<Long> ids) {
+        return transitionAll(ids, LockerBooking.LockerBookingStatus.ACTIVE, LockerBooking.LockerBookingStatus.EXPIRED,
+                LockerBooking.LockerBookingStatus.CANCELLED);
+    }
 }
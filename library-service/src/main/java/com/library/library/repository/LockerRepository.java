@@ -2,6 +2,9 @@ package com.library.library.repository;
 
 import com.library.library.model.Locker;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +12,28 @@ import java.util.List;
 @Repository
 public interface LockerRepository extends JpaRepository<Locker, Long> {
     List<Locker> findByStatus(Locker.LockerStatus status);
+
+    /**
+     * Marks the locker BOOKED only if it is still AVAILABLE. The row lock of
+     * the UPDATE makes this a compare-and-set: of any number of concurrent
+     * claims on one locker exactly one returns 1, and other lockers' rows are
+     * never touched.
+     */
+    default int claimIfAvailable(Long id) {
+        return transition(id, Locker.LockerStatus.AVAILABLE, Locker.LockerStatus.BOOKED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Locker l SET l.status = :to WHERE l.id = :id AND l.status = :from")
+    int transition(@Param("id") Long id, @Param("from") Locker.LockerStatus from,
+            @Param("to") Locker.LockerStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Locker l SET l.status = :to WHERE l.id IN :ids AND l.status = :from")
+    int transitionAll(@Param("ids") List<Long> ids, @Param("from") Locker.LockerStatus from,
+            @Param("to") Locker.LockerStatus to);
+
+    default int releaseAll(List<Long> ids) {
+        return transitionAll(ids, Locker.LockerStatus.BOOKED, Locker.LockerStatus.AVAILABLE);
+    }
 }
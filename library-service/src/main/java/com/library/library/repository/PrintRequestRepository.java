@@ -11,8 +11,4 @@ public interface PrintRequestRepository extends JpaRepository<PrintRequest, Long
     List<PrintRequest> findByUserId(Long userId);
 
     List<PrintRequest> findByStatus(String status);
-
-    @org.springframework.data.jpa.repository.Query("SELECT SUM(pr.resultCost) FROM PrintRequest pr WHERE pr.status IN :statuses")
-    Double sumResultCostByStatusIn(
-            @org.springframework.data.repository.query.Param("statuses") java.util.List<String> statuses);
 }
@@ -0,0 +1,56 @@
+package com.library.library.repository;
+
+import com.library.library.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    // Atomic increment of one (day, source, shift) cell; creates it on first use
+    @Modifying
+    @Query(value = "INSERT INTO library_revenue_rollups (day, source, shift_id, amount, entries) "
+            + "VALUES (:day, :source, 0, :amount, :entries) "
+            + "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount), entries = entries + VALUES(entries)",
+            nativeQuery = true)
+    void increment(@Param("day") LocalDate day, @Param("source") String source,
+            @Param("amount") double amount, @Param("entries") long entries);
+
+    @Modifying
+    @Query(value = "DELETE FROM library_revenue_rollups WHERE source IN ('LOCKER', 'PRINT', 'ORDER')",
+            nativeQuery = true)
+    void deleteLibraryRollups();
+
+    @Modifying
+    @Query(value = "INSERT INTO library_revenue_rollups (day, source, shift_id, amount, entries) "
+            + "SELECT start_date, 'LOCKER', 0, COALESCE(SUM(amount), 0), COUNT(*) "
+            + "FROM locker_bookings WHERE status IN ('ACTIVE', 'EXPIRED') GROUP BY start_date",
+            nativeQuery = true)
+    int backfillLockerRollups();
+
+    @Modifying
+    @Query(value = "INSERT INTO library_revenue_rollups (day, source, shift_id, amount, entries) "
+            + "SELECT DATE(created_at), 'PRINT', 0, COALESCE(SUM(result_cost), 0), COUNT(*) "
+            + "FROM print_requests WHERE status IN ('Verified', 'Printed', 'Completed') AND created_at IS NOT NULL "
+            + "GROUP BY DATE(created_at)",
+            nativeQuery = true)
+    int backfillPrintRollups();
+
+    @Modifying
+    @Query(value = "INSERT INTO library_revenue_rollups (day, source, shift_id, amount, entries) "
+            + "SELECT DATE(order_time), 'ORDER', 0, COALESCE(SUM(total_amount), 0), COUNT(*) "
+            + "FROM orders WHERE status IN ('Verified', 'Delivered') AND order_time IS NOT NULL "
+            + "GROUP BY DATE(order_time)",
+            nativeQuery = true)
+    int backfillOrderRollups();
+
+    @Query("SELECT r.source, COALESCE(SUM(r.amount), 0) FROM RevenueRollup r "
+            + "WHERE r.day BETWEEN :from AND :to GROUP BY r.source")
+    List<Object[]> sumAmountBySource(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
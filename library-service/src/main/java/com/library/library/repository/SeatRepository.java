@@ -2,8 +2,11 @@ package com.library.library.repository;
 
 import com.library.library.model.Seat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,7 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     List<Seat> findByStatus(Seat.SeatStatus status);
 
     List<Seat> findByIsActiveTrue();
+
+    @Query("SELECT s.id FROM Seat s WHERE s.id IN :ids AND s.status = :status")
+    List<Long> findIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("status") Seat.SeatStatus status);
 }
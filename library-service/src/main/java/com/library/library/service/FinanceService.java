@@ -1,15 +1,12 @@
 package com.library.library.service;
 
 import com.library.library.model.Expenditure;
-import com.library.library.model.LockerBooking;
+import com.library.library.model.RevenueRollup;
 import com.library.library.repository.ExpenditureRepository;
-import com.library.library.repository.LockerBookingRepository;
-import com.library.library.repository.OrderRepository;
-import com.library.library.repository.PrintRequestRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,18 +15,12 @@ import java.util.Map;
 public class FinanceService {
 
     private final ExpenditureRepository expenditureRepository;
-    private final LockerBookingRepository lockerBookingRepository;
-    private final PrintRequestRepository printRequestRepository;
-    private final OrderRepository orderRepository;
+    private final RevenueRollupService revenueRollupService;
 
     public FinanceService(ExpenditureRepository expenditureRepository,
-            LockerBookingRepository lockerBookingRepository,
-            PrintRequestRepository printRequestRepository,
-            OrderRepository orderRepository) {
+            RevenueRollupService revenueRollupService) {
         this.expenditureRepository = expenditureRepository;
-        this.lockerBookingRepository = lockerBookingRepository;
-        this.printRequestRepository = printRequestRepository;
-        this.orderRepository = orderRepository;
+        this.revenueRollupService = revenueRollupService;
     }
 
     // Expenditure Methods
@@ -54,30 +45,21 @@ public class FinanceService {
         return total != null ? total : 0.0;
     }
 
-    // Revenue Methods
+    // Revenue Methods (served from the daily rollups; null bounds mean all time)
     @Transactional(readOnly = true)
-    public Map<String, Double> getLibraryRevenueBreakdown() {
-        // Locker Revenue
-        Double lockerRevenue = lockerBookingRepository.sumAmountByStatus(LockerBooking.LockerBookingStatus.ACTIVE);
-        if (lockerRevenue == null)
-            lockerRevenue = 0.0;
-
-        // Print Revenue (Verified, Printed, Completed)
-        Double printRevenue = printRequestRepository
-                .sumResultCostByStatusIn(Arrays.asList("Verified", "Printed", "Completed"));
-        if (printRevenue == null)
-            printRevenue = 0.0;
-
-        // Order Revenue (Snacks/Stationary) (Verified, Delivered)
-        Double orderRevenue = orderRepository.sumTotalAmountByStatusIn(Arrays.asList("Verified", "Delivered"));
-        if (orderRevenue == null)
-            orderRevenue = 0.0;
+    public Map<String, Double> getLibraryRevenueBreakdown(LocalDate from, LocalDate to) {
+        Map<String, Double> bySource = revenueRollupService.getRevenueBySource(from, to);
 
         Map<String, Double> breakdown = new HashMap<>();
-        breakdown.put("lockerRevenue", lockerRevenue);
-        breakdown.put("printRevenue", printRevenue);
-        breakdown.put("snackRevenue", orderRevenue);
+        breakdown.put("lockerRevenue", bySource.getOrDefault(RevenueRollup.SOURCE_LOCKER, 0.0));
+        breakdown.put("printRevenue", bySource.getOrDefault(RevenueRollup.SOURCE_PRINT, 0.0));
+        breakdown.put("snackRevenue", bySource.getOrDefault(RevenueRollup.SOURCE_ORDER, 0.0));
 
         return breakdown;
     }
+
+    @Transactional
+    public int rebuildRevenueRollups() {
+        return revenueRollupService.rebuild();
+    }
 }
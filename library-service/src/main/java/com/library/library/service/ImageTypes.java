@@ -0,0 +1,42 @@
+package com.library.library.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Content types for user-uploaded images, taken from the bytes themselves.
+ *
+ * Only JPEG, PNG and WebP are served as images. Anything else, including
+ * whatever type the uploader claimed, is served as application/octet-stream,
+ * so an upload can never be rendered as HTML or script in the app's origin.
+ */
+public final class ImageTypes {
+
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private static final byte[] JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private ImageTypes() {
+    }
+
+    public static String detect(byte[] data) {
+        if (startsWith(data, 0, JPEG)) {
+            return "image/jpeg";
+        }
+        if (startsWith(data, 0, PNG)) {
+            return "image/png";
+        }
+        if (startsWith(data, 0, RIFF) && startsWith(data, 8, WEBP)) {
+            return "image/webp";
+        }
+        return OCTET_STREAM;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] magic) {
+        return data != null && data.length >= offset + magic.length
+                && Arrays.equals(data, offset, offset + magic.length, magic, 0, magic.length);
+    }
+}
@@ -0,0 +1,221 @@
+package com.library.library.service;
+
+import com.library.library.model.LockerBooking;
+import com.library.library.repository.LockerBookingRepository;
+import com.library.library.repository.LockerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ends locker bookings whose end date has passed and frees their lockers.
+ *
+ * Bookings that hold a locker are kept in a priority queue ordered by end
+ * date, loaded from the database at startup and reloaded periodically, so a
+ * sweep only touches the bookings that are due. Due bookings are handled in
+ * batches: each batch locks the rows that still hold their locker, ends them
+ * with one UPDATE (ACTIVE becomes EXPIRED, never-approved PENDING becomes
+ * CANCELLED) and frees their lockers with another. An ACTIVE booking with
+ * auto-renew gets a PENDING booking for the next term instead, and keeps its
+ * locker.
+ *
+ * Everything is decided by the database rows inside that transaction, so a
+ * booking is ended and renewed exactly once even if a sweep is repeated after
+ * a restart or runs on two instances at the same time.
+ */
+@Service
+public class LockerLifecycleService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LockerLifecycleService.class);
+
+    private static final Comparator<Due> BY_END_DATE = Comparator.comparing((Due due) -> due.endDate)
+            .thenComparing(due -> due.bookingId);
+
+    private final LockerBookingRepository lockerBookingRepository;
+    private final LockerRepository lockerRepository;
+    private final LockerOccupancyIndex lockerOccupancyIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${lockers.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    // Guarded by this
+    private PriorityQueue<Due> queue = new PriorityQueue<>(BY_END_DATE);
+
+    public LockerLifecycleService(LockerBookingRepository lockerBookingRepository,
+            LockerRepository lockerRepository, LockerOccupancyIndex lockerOccupancyIndex,
+            PlatformTransactionManager transactionManager) {
+        this.lockerBookingRepository = lockerBookingRepository;
+        this.lockerRepository = lockerRepository;
+        this.lockerOccupancyIndex = lockerOccupancyIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    /**
+     * Rebuilds the queue from the database, picking up bookings made on other
+     * instances.
+     */
+    @Scheduled(fixedDelayString = "${lockers.lifecycle.reload-interval-ms:21600000}",
+            initialDelayString = "${lockers.lifecycle.reload-interval-ms:21600000}")
+    public void reload() {
+        PriorityQueue<Due> loaded = new PriorityQueue<>(BY_END_DATE);
+        for (Object[] row : lockerBookingRepository.findEndDates(LockerOccupancyIndex.HOLDING_STATUSES)) {
+            loaded.add(new Due((Long) row[0], (LocalDate) row[1]));
+        }
+        synchronized (this) {
+            queue = loaded;
+        }
+    }
+
+    /**
+     * Queues a new booking once the current transaction commits.
+     */
+    public void trackAfterCommit(LockerBooking booking) {
+        Due due = new Due(booking.getId(), booking.getEndDate());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(due);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(due);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${lockers.lifecycle.sweep-interval-ms:3600000}",
+            initialDelayString = "${lockers.lifecycle.initial-delay-ms:60000}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        int ended = 0;
+        int renewed = 0;
+        List<Long> batch;
+        while (!(batch = pollDue(today)).isEmpty()) {
+            List<Long> ids = batch;
+            int[] counts;
+            try {
+                counts = transactionTemplate.execute(status -> endBatch(ids, today));
+            } catch (RuntimeException e) {
+                // Put the batch back; the next sweep retries it
+                for (Long id : ids) {
+                    enqueue(new Due(id, today.minusDays(1)));
+                }
+                log.warn("Failed to end {} locker bookings: {}", ids.size(), e.getMessage());
+                break;
+            }
+            ended += counts[0];
+            renewed += counts[1];
+        }
+        if (ended > 0) {
+            log.info("Ended {} locker bookings, {} renewed", ended, renewed);
+        }
+    }
+
+    /**
+     * Ends the bookings among {@code ids} that still hold their locker.
+     * Returns { bookings ended, renewals created }.
+     */
+    private int[] endBatch(List<Long> ids, LocalDate today) {
+        List<Object[]> rows = lockerBookingRepository.lockEnded(ids, today);
+        if (rows.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+
+        List<Long> endedIds = new ArrayList<>(rows.size());
+        List<Long> freedLockerIds = new ArrayList<>();
+        List<Object[]> renewed = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long bookingId = ((Number) row[0]).longValue();
+            Long lockerId = ((Number) row[1]).longValue();
+            endedIds.add(bookingId);
+            boolean active = LockerBooking.LockerBookingStatus.ACTIVE.name().equals(row[5]);
+            if (active && isTrue(row[6])) {
+                renewed.add(row);
+            } else {
+                freedLockerIds.add(lockerId);
+            }
+            lockerOccupancyIndex.releaseAfterCommit(lockerId, bookingId);
+        }
+
+        lockerBookingRepository.endAll(endedIds);
+        if (!freedLockerIds.isEmpty()) {
+            lockerRepository.releaseAll(freedLockerIds);
+        }
+        // Built after the bulk UPDATEs, which clear the persistence context
+        List<LockerBooking> renewals = new ArrayList<>(renewed.size());
+        for (Object[] row : renewed) {
+            renewals.add(renewal(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(), toLocalDate(row[3]), toLocalDate(row[4]),
+                    ((Number) row[7]).doubleValue()));
+        }
+        for (LockerBooking saved : lockerBookingRepository.saveAll(renewals)) {
+            lockerOccupancyIndex.updateAfterCommit(saved);
+            trackAfterCommit(saved);
+        }
+        return new int[] { endedIds.size(), renewals.size() };
+    }
+
+    // The next term, as long as the last one, awaiting payment like a new booking
+    private LockerBooking renewal(Long bookingId, Long lockerId, Long userId, LocalDate startDate,
+            LocalDate endDate, double price) {
+        int months = (int) Math.max(1, Period.between(startDate, endDate).toTotalMonths());
+        LockerBooking renewal = new LockerBooking(userId, lockerRepository.getReferenceById(lockerId),
+                endDate, endDate.plusMonths(months), price * months);
+        renewal.setStatus(LockerBooking.LockerBookingStatus.PENDING);
+        renewal.setAutoRenew(true);
+        renewal.setRenewalOf(bookingId);
+        return renewal;
+    }
+
+    private synchronized List<Long> pollDue(LocalDate today) {
+        List<Long> due = new ArrayList<>();
+        while (due.size() < batchSize && !queue.isEmpty() && queue.peek().endDate.isBefore(today)) {
+            due.add(queue.poll().bookingId);
+        }
+        return due;
+    }
+
+    private synchronized void enqueue(Due due) {
+        queue.add(due);
+    }
+
+    // BIT columns may come back as Boolean or as a number
+    private static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value) || value instanceof Number number && number.intValue() == 1;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static final class Due {
+        private final Long bookingId;
+        private final LocalDate endDate;
+
+        private Due(Long bookingId, LocalDate endDate) {
+            this.bookingId = bookingId;
+            this.endDate = endDate;
+        }
+    }
+}
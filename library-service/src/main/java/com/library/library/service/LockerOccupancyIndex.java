@@ -0,0 +1,115 @@
+package com.library.library.service;
+
+import com.library.library.model.LockerBooking;
+import com.library.library.repository.LockerBookingRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which booking holds each locker, kept in memory so the locker listing does
+ * not have to scan the whole booking history.
+ *
+ * A locker is held by its PENDING or ACTIVE booking. The map is loaded with
+ * one query at startup and updated after the commit of every book, verify
+ * and cancel, so a rolled-back change never shows. It is also reloaded
+ * periodically to pick up changes made by other instances.
+ */
+@Component
+public class LockerOccupancyIndex implements ApplicationRunner {
+
+    public static final List<LockerBooking.LockerBookingStatus> HOLDING_STATUSES = List.of(
+            LockerBooking.LockerBookingStatus.PENDING, LockerBooking.LockerBookingStatus.ACTIVE);
+
+    private final LockerBookingRepository lockerBookingRepository;
+
+    private volatile Map<Long, Occupant> occupants = new ConcurrentHashMap<>();
+
+    public LockerOccupancyIndex(LockerBookingRepository lockerBookingRepository) {
+        this.lockerBookingRepository = lockerBookingRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${lockers.occupancy.reload-interval-ms:300000}",
+            initialDelayString = "${lockers.occupancy.reload-interval-ms:300000}")
+    public void reload() {
+        Map<Long, Occupant> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : lockerBookingRepository.findHolders(HOLDING_STATUSES)) {
+            loaded.put((Long) row[0], new Occupant((Long) row[1], (Long) row[2]));
+        }
+        occupants = loaded;
+    }
+
+    /**
+     * The booking holding the locker, or null if it is free.
+     */
+    public Occupant get(Long lockerId) {
+        return occupants.get(lockerId);
+    }
+
+    /**
+     * Records the booking's hold on its locker, or drops it if the booking no
+     * longer holds it, once the current transaction commits.
+     */
+    public void updateAfterCommit(LockerBooking booking) {
+        Long lockerId = booking.getLocker().getId();
+        Long bookingId = booking.getId();
+        Long userId = booking.getUserId();
+        if (HOLDING_STATUSES.contains(booking.getStatus())) {
+            afterCommit(() -> occupants.put(lockerId, new Occupant(bookingId, userId)));
+        } else {
+            releaseAfterCommit(lockerId, bookingId);
+        }
+    }
+
+    /**
+     * Drops the booking's hold on the locker once the current transaction
+     * commits, unless another booking holds it by then.
+     */
+    public void releaseAfterCommit(Long lockerId, Long bookingId) {
+        afterCommit(() -> occupants.computeIfPresent(lockerId,
+                (id, occupant) -> occupant.bookingId.equals(bookingId) ? null : occupant));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public static final class Occupant {
+        private final Long bookingId;
+        private final Long userId;
+
+        private Occupant(Long bookingId, Long userId) {
+            this.bookingId = bookingId;
+            this.userId = userId;
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package com.library.library.service;
 
+import com.library.library.dto.LockerBookingView;
 import com.library.library.model.Locker;
 import com.library.library.model.LockerBooking;
 import com.library.library.repository.LockerBookingRepository;
 import com.library.library.repository.LockerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class LockerService {
 
+    private static final double DEFAULT_LOCKER_PRICE = 500.0;
+
     @Autowired
     private LockerRepository lockerRepository;
 
@@ -22,42 +31,56 @@ public class LockerService {
     @Autowired
     private com.library.library.repository.SeatRepository seatRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private LockerOccupancyIndex lockerOccupancyIndex;
+
+    @Autowired
+    private LockerLifecycleService lockerLifecycleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
     public List<Locker> getAllLockers() {
-        syncLockersWithSeats();
         List<Locker> lockers = lockerRepository.findAll();
-        List<LockerBooking> activeBookings = lockerBookingRepository.findAll();
-
         for (Locker locker : lockers) {
             if (locker.getStatus() == Locker.LockerStatus.BOOKED) {
-                // Find active or pending booking for this locker
-                activeBookings.stream()
-                        .filter(b -> b.getLocker().getId().equals(locker.getId()) &&
-                                (b.getStatus() == LockerBooking.LockerBookingStatus.ACTIVE ||
-                                        b.getStatus() == LockerBooking.LockerBookingStatus.PENDING))
-                        .findFirst()
-                        .ifPresent(booking -> locker.setBookedBy("User " + booking.getUserId()));
+                LockerOccupancyIndex.Occupant occupant = lockerOccupancyIndex.get(locker.getId());
+                if (occupant != null) {
+                    locker.setBookedBy("User " + occupant.getUserId());
+                }
             }
         }
         return lockers;
     }
 
-    // Auto-create lockers if they don't exist
+    // Auto-create lockers so there is one per seat; runs at startup and after
+    // seats are added, inserting the missing lockers in one JDBC batch.
     // Wrapped in try-catch to prevent startup crashes if SeatRepository is not
     // ready
-    public void syncLockersWithSeats() {
+    public synchronized void syncLockersWithSeats() {
         try {
             long seatCount = seatRepository.count();
             long lockerCount = lockerRepository.count();
 
             if (lockerCount < seatCount) {
-                for (int i = (int) lockerCount + 1; i <= seatCount; i++) {
-                    Locker locker = new Locker();
-                    locker.setLockerNumber("L" + i);
-                    locker.setPrice(500.0); // Default price
-                    locker.setStatus(Locker.LockerStatus.AVAILABLE);
-                    locker.setIsActive(true);
-                    lockerRepository.save(locker);
+                List<String> lockerNumbers = new ArrayList<>();
+                for (long i = lockerCount + 1; i <= seatCount; i++) {
+                    lockerNumbers.add("L" + i);
                 }
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO lockers (locker_number, status, price, is_active) VALUES (?, ?, ?, ?)",
+                        lockerNumbers,
+                        lockerNumbers.size(),
+                        (ps, lockerNumber) -> {
+                            ps.setString(1, lockerNumber);
+                            ps.setString(2, Locker.LockerStatus.AVAILABLE.name());
+                            ps.setDouble(3, DEFAULT_LOCKER_PRICE);
+                            ps.setBoolean(4, true);
+                        });
             }
         } catch (Exception e) {
             System.err.println("Warning: Failed to sync lockers with seats. Proceeding with existing lockers. Error: "
@@ -65,17 +88,39 @@ public class LockerService {
         }
     }
 
+    /**
+     * Runs {@link #syncLockersWithSeats()} once the current transaction
+     * commits, so it counts the seats just added.
+     */
+    public void syncLockersWithSeatsAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            syncLockersWithSeats();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                syncLockersWithSeats();
+            }
+        });
+    }
+
     public Locker createLocker(Locker locker) {
         return lockerRepository.save(locker);
     }
 
+    @Transactional
     public LockerBooking bookLocker(Long userId, Long lockerId, int durationMonths, String screenshotBase64) {
-        Locker locker = lockerRepository.findById(lockerId)
-                .orElseThrow(() -> new RuntimeException("Locker not found"));
-
-        if (locker.getStatus() != Locker.LockerStatus.AVAILABLE) {
+        // Claim first: concurrent requests for the same locker race on this
+        // one conditional UPDATE, and only the winner goes on to book it
+        if (lockerRepository.claimIfAvailable(lockerId) == 0) {
+            if (!lockerRepository.existsById(lockerId)) {
+                throw new RuntimeException("Locker not found");
+            }
             throw new RuntimeException("Locker is not available");
         }
+        Locker locker = lockerRepository.findById(lockerId)
+                .orElseThrow(() -> new RuntimeException("Locker not found"));
 
         LocalDate startDate = LocalDate.now();
         LocalDate endDate = startDate.plusMonths(durationMonths);
@@ -85,17 +130,25 @@ public class LockerService {
         booking.setStatus(LockerBooking.LockerBookingStatus.PENDING); // Pending admin approval
         booking.setPaymentScreenshot(screenshotBase64);
 
-        locker.setStatus(Locker.LockerStatus.BOOKED);
-        lockerRepository.save(locker);
-
-        return lockerBookingRepository.save(booking);
+        LockerBooking saved = lockerBookingRepository.save(booking);
+        lockerOccupancyIndex.updateAfterCommit(saved);
+        lockerLifecycleService.trackAfterCommit(saved);
+        return saved;
     }
 
+    @Transactional
     public LockerBooking verifyBooking(Long bookingId, boolean isApproved) {
         LockerBooking booking = lockerBookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         Locker locker = booking.getLocker();
+        LockerBooking.LockerBookingStatus oldStatus = booking.getStatus();
+
+        // A cancelled booking no longer holds the locker, which may already be
+        // someone else's: it must not be approved or release the locker again
+        if (!LockerOccupancyIndex.HOLDING_STATUSES.contains(booking.getStatus())) {
+            throw new RuntimeException("Booking is no longer active");
+        }
 
         if (isApproved) {
             booking.setStatus(LockerBooking.LockerBookingStatus.ACTIVE);
@@ -106,28 +159,60 @@ public class LockerService {
             locker.setStatus(Locker.LockerStatus.AVAILABLE);
             lockerRepository.save(locker);
         }
+        revenueRollupService.onLockerBookingStatusChange(booking, oldStatus, booking.getStatus());
+        lockerOccupancyIndex.updateAfterCommit(booking);
         return lockerBookingRepository.save(booking);
     }
 
+    @Transactional
     public LockerBooking cancelBooking(Long bookingId) {
         LockerBooking booking = lockerBookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         Locker locker = booking.getLocker();
+        if (!LockerOccupancyIndex.HOLDING_STATUSES.contains(booking.getStatus())) {
+            throw new RuntimeException("Booking is no longer active");
+        }
 
+        revenueRollupService.onLockerBookingStatusChange(booking, booking.getStatus(),
+                LockerBooking.LockerBookingStatus.CANCELLED);
         booking.setStatus(LockerBooking.LockerBookingStatus.CANCELLED);
         locker.setStatus(Locker.LockerStatus.AVAILABLE);
 
         lockerRepository.save(locker);
+        lockerOccupancyIndex.updateAfterCommit(booking);
         return lockerBookingRepository.save(booking);
     }
 
-    public List<LockerBooking> getUserBookings(Long userId) {
-        return lockerBookingRepository.findByUserId(userId);
+    @Transactional
+    public LockerBooking setAutoRenew(Long bookingId, boolean autoRenew) {
+        LockerBooking booking = lockerBookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (!LockerOccupancyIndex.HOLDING_STATUSES.contains(booking.getStatus())) {
+            throw new RuntimeException("Booking is no longer active");
+        }
+        booking.setAutoRenew(autoRenew);
+        return lockerBookingRepository.save(booking);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LockerBookingView> getUserBookings(Long userId) {
+        return lockerBookingRepository.findViewsByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LockerBookingView> getAllBookings() {
+        return lockerBookingRepository.findAllViews();
     }
 
-    public List<LockerBooking> getAllBookings() {
-        return lockerBookingRepository.findAll();
+    /**
+     * The decoded payment screenshot of a booking.
+     */
+    @Transactional(readOnly = true)
+    public byte[] getPaymentScreenshot(Long bookingId) {
+        String screenshot = lockerBookingRepository.findPaymentScreenshot(bookingId)
+                .orElseThrow(() -> new RuntimeException("Payment screenshot not found"));
+        return Base64.getDecoder().decode(screenshot);
     }
 
     public Locker updateLockerPrice(Long id, Double newPrice) {
@@ -0,0 +1,202 @@
+package com.library.library.service;
+
+import com.library.library.dto.MenuItemView;
+import com.library.library.model.MenuItem;
+import com.library.library.repository.MenuItemRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory snapshot of the menu, so listing it does not touch the database.
+ *
+ * Menu items store uploaded images inline as base64 data URLs. When the
+ * snapshot is built each one is decoded once and kept under the SHA-256 of
+ * its bytes, and the item lists point to {@code /menu/images/<hash>}
+ * instead, which keeps the menu JSON small and lets clients cache the images
+ * for good. The snapshot is rebuilt after every committed menu change, and
+ * periodically to pick up changes made by other instances.
+ */
+@Component
+public class MenuCatalog {
+
+    public static final String IMAGE_PATH = "/menu/images/";
+
+    private final MenuItemRepository menuItemRepository;
+
+    private volatile Snapshot current;
+
+    public MenuCatalog(MenuItemRepository menuItemRepository) {
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = rebuild();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the snapshot once the current transaction commits, so a
+     * rolled-back menu change is never published.
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuild();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${menu.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${menu.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    public synchronized Snapshot rebuild() {
+        List<MenuItem> items = menuItemRepository.findAll();
+        List<MenuItemView> all = new ArrayList<>(items.size());
+        List<MenuItemView> available = new ArrayList<>();
+        Map<String, Image> images = new HashMap<>();
+        StringBuilder content = new StringBuilder();
+        for (MenuItem item : items) {
+            String imageUrl = item.getImageUrl();
+            Image image = decode(imageUrl);
+            if (image != null) {
+                images.putIfAbsent(image.hash, image);
+                imageUrl = IMAGE_PATH + image.hash;
+            }
+            MenuItemView view = new MenuItemView(item.getId(), item.getName(), item.getType(), item.getPrice(),
+                    imageUrl, item.isAvailable());
+            all.add(view);
+            content.append(item.getId()).append('\u0000').append(item.getName()).append('\u0000')
+                    .append(item.getType()).append('\u0000').append(item.getPrice()).append('\u0000')
+                    .append(imageUrl).append('\u0000').append(item.isAvailable()).append('\n');
+            if (item.isAvailable()) {
+                available.add(view);
+            }
+        }
+        // Derived from the content, so every instance gives the same menu the same tag
+        String etag = hash(content.toString().getBytes(StandardCharsets.UTF_8));
+        Snapshot snapshot = new Snapshot(etag, Collections.unmodifiableList(all),
+                Collections.unmodifiableList(available), images);
+        current = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * The image url to store for an item: a catalog image path, as sent back
+     * by a client editing an item, becomes the data URL it stands for again.
+     */
+    public String toStoredImageUrl(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(IMAGE_PATH)) {
+            return imageUrl;
+        }
+        Image image = snapshot().getImage(imageUrl.substring(IMAGE_PATH.length()));
+        if (image == null) {
+            throw new RuntimeException("Unknown menu image " + imageUrl);
+        }
+        return "data:" + image.contentType + ";base64," + Base64.getEncoder().encodeToString(image.data);
+    }
+
+    // data:<content type>;base64,<payload>; anything else is a link kept as is.
+    // The declared type is ignored: images are served with the type of their bytes.
+    private static Image decode(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("data:")) {
+            return null;
+        }
+        int comma = imageUrl.indexOf(',');
+        if (comma < 0 || !imageUrl.substring(0, comma).endsWith(";base64")) {
+            return null;
+        }
+        try {
+            byte[] data = Base64.getMimeDecoder().decode(imageUrl.substring(comma + 1));
+            return new Image(hash(data), ImageTypes.detect(data), data);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class Snapshot {
+        private final String etag;
+        private final List<MenuItemView> all;
+        private final List<MenuItemView> available;
+        private final Map<String, Image> images;
+
+        private Snapshot(String etag, List<MenuItemView> all, List<MenuItemView> available,
+                Map<String, Image> images) {
+            this.etag = etag;
+            this.all = all;
+            this.available = available;
+            this.images = images;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<MenuItemView> getAll() {
+            return all;
+        }
+
+        public List<MenuItemView> getAvailable() {
+            return available;
+        }
+
+        public Image getImage(String hash) {
+            return images.get(hash);
+        }
+    }
+
+    public static final class Image {
+        private final String hash;
+        private final String contentType;
+        private final byte[] data;
+
+        private Image(String hash, String contentType, byte[] data) {
+            this.hash = hash;
+            this.contentType = contentType;
+            this.data = data;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.library.library.service;
 
+import com.library.library.dto.MenuItemView;
 import com.library.library.model.MenuItem;
 import com.library.library.model.Order;
 import com.library.library.repository.MenuItemRepository;
 import com.library.library.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,17 +21,26 @@ public class OrderingService {
     @Autowired
     private OrderRepository orderRepository;
 
-    // Menu Operations
-    public List<MenuItem> getAllMenuItems() {
-        return menuItemRepository.findAll();
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    // Menu Operations, listings served from the in-memory catalog
+    public List<MenuItemView> getAllMenuItems() {
+        return menuCatalog.snapshot().getAll();
     }
 
-    public List<MenuItem> getAvailableMenuItems() {
-        return menuItemRepository.findByAvailableTrue();
+    public List<MenuItemView> getAvailableMenuItems() {
+        return menuCatalog.snapshot().getAvailable();
     }
 
     public MenuItem addMenuItem(MenuItem item) {
-        return menuItemRepository.save(item);
+        item.setImageUrl(menuCatalog.toStoredImageUrl(item.getImageUrl()));
+        MenuItem saved = menuItemRepository.save(item);
+        menuCatalog.rebuildAfterCommit();
+        return saved;
     }
 
     public MenuItem updateMenuItemAvailability(Long id, boolean available) {
@@ -37,7 +48,9 @@ public class OrderingService {
         if (item.isPresent()) {
             MenuItem menuItem = item.get();
             menuItem.setAvailable(available);
-            return menuItemRepository.save(menuItem);
+            MenuItem saved = menuItemRepository.save(menuItem);
+            menuCatalog.rebuildAfterCommit();
+            return saved;
         }
         return null;
     }
@@ -49,19 +62,29 @@ public class OrderingService {
             menuItem.setName(updatedItem.getName());
             menuItem.setPrice(updatedItem.getPrice());
             menuItem.setType(updatedItem.getType());
-            menuItem.setImageUrl(updatedItem.getImageUrl());
-            return menuItemRepository.save(menuItem);
+            menuItem.setImageUrl(menuCatalog.toStoredImageUrl(updatedItem.getImageUrl()));
+            MenuItem saved = menuItemRepository.save(menuItem);
+            menuCatalog.rebuildAfterCommit();
+            return saved;
         }
         return null;
     }
 
     public void deleteMenuItem(Long id) {
         menuItemRepository.deleteById(id);
+        menuCatalog.rebuildAfterCommit();
+    }
+
+    public MenuCatalog.Snapshot getMenuSnapshot() {
+        return menuCatalog.snapshot();
     }
 
     // Order Operations
+    @Transactional
     public Order placeOrder(Order order) {
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        revenueRollupService.onOrderStatusChange(saved, null, saved.getStatus());
+        return saved;
     }
 
     public List<Order> getAllOrders() {
@@ -72,10 +95,12 @@ public class OrderingService {
         return orderRepository.findByUserId(userId);
     }
 
+    @Transactional
     public Order updateOrderStatus(Long orderId, String status) {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
+            revenueRollupService.onOrderStatusChange(order, order.getStatus(), status);
             order.setStatus(status);
             return orderRepository.save(order);
         }
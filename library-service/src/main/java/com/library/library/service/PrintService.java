@@ -4,6 +4,7 @@ import com.library.library.model.PrintRequest;
 import com.library.library.repository.PrintRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,8 +15,14 @@ public class PrintService {
     @Autowired
     private PrintRequestRepository repository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Transactional
     public PrintRequest createRequest(PrintRequest request) {
-        return repository.save(request);
+        PrintRequest saved = repository.save(request);
+        revenueRollupService.onPrintRequestStatusChange(saved, null, saved.getStatus());
+        return saved;
     }
 
     public List<PrintRequest> getAllRequests() {
@@ -26,10 +33,12 @@ public class PrintService {
         return repository.findByUserId(userId);
     }
 
+    @Transactional
     public PrintRequest updateStatus(Long id, String status) {
         Optional<PrintRequest> req = repository.findById(id);
         if (req.isPresent()) {
             PrintRequest r = req.get();
+            revenueRollupService.onPrintRequestStatusChange(r, r.getStatus(), status);
             r.setStatus(status);
             return repository.save(r);
         }
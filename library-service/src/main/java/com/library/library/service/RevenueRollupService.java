@@ -0,0 +1,122 @@
+package com.library.library.service;
+
+import com.library.library.model.LockerBooking;
+import com.library.library.model.Order;
+import com.library.library.model.PrintRequest;
+import com.library.library.model.RevenueRollup;
+import com.library.library.repository.RevenueRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps per-day revenue rollups for library income so finance stats read
+ * O(days) rows instead of summing locker bookings, print requests and orders.
+ *
+ * Locker revenue is attributed to the booking's start date, print and order
+ * revenue to the day the request was created. An entry adds to its cell when
+ * it enters a counted status and subtracts when it leaves one.
+ */
+@Service
+public class RevenueRollupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    // An expired booking was paid for its whole term
+    public static final Set<LockerBooking.LockerBookingStatus> COUNTED_LOCKER_STATUSES = Set.of(
+            LockerBooking.LockerBookingStatus.ACTIVE, LockerBooking.LockerBookingStatus.EXPIRED);
+    public static final Set<String> COUNTED_PRINT_STATUSES = Set.of("Verified", "Printed", "Completed");
+    public static final Set<String> COUNTED_ORDER_STATUSES = Set.of("Verified", "Delivered");
+
+    // Bounds used for "all time" queries
+    private static final LocalDate MIN_DAY = LocalDate.of(2000, 1, 1);
+    private static final LocalDate MAX_DAY = LocalDate.of(9999, 12, 31);
+
+    private final RevenueRollupRepository rollupRepository;
+
+    public RevenueRollupService(RevenueRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Backfills the rollups on first start, when the table is still empty.
+     * The table belongs to this service alone (booking-service keeps its own), so
+     * an empty table means this service has never backfilled. Runs in one
+     * transaction with the rebuild, which is a self-call and would otherwise
+     * bypass its own transaction.
+     */
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLockerBookingStatusChange(LockerBooking booking, LockerBooking.LockerBookingStatus oldStatus,
+            LockerBooking.LockerBookingStatus newStatus) {
+        apply(RevenueRollup.SOURCE_LOCKER, booking.getStartDate(), booking.getAmount(),
+                oldStatus != null && COUNTED_LOCKER_STATUSES.contains(oldStatus),
+                newStatus != null && COUNTED_LOCKER_STATUSES.contains(newStatus));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onPrintRequestStatusChange(PrintRequest request, String oldStatus, String newStatus) {
+        apply(RevenueRollup.SOURCE_PRINT,
+                request.getCreatedAt() != null ? request.getCreatedAt().toLocalDate() : null,
+                request.getResultCost(),
+                oldStatus != null && COUNTED_PRINT_STATUSES.contains(oldStatus),
+                newStatus != null && COUNTED_PRINT_STATUSES.contains(newStatus));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderStatusChange(Order order, String oldStatus, String newStatus) {
+        apply(RevenueRollup.SOURCE_ORDER,
+                order.getOrderTime() != null ? order.getOrderTime().toLocalDate() : null,
+                order.getTotalAmount(),
+                oldStatus != null && COUNTED_ORDER_STATUSES.contains(oldStatus),
+                newStatus != null && COUNTED_ORDER_STATUSES.contains(newStatus));
+    }
+
+    /**
+     * Recomputes all library rollups from the source tables in one transaction.
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteLibraryRollups();
+        int cells = rollupRepository.backfillLockerRollups()
+                + rollupRepository.backfillPrintRollups()
+                + rollupRepository.backfillOrderRollups();
+        log.info("Rebuilt library revenue rollups: {} day/source cells", cells);
+        return cells;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Double> getRevenueBySource(LocalDate from, LocalDate to) {
+        Map<String, Double> totals = new HashMap<>();
+        List<Object[]> rows = rollupRepository.sumAmountBySource(
+                from != null ? from : MIN_DAY, to != null ? to : MAX_DAY);
+        for (Object[] row : rows) {
+            totals.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        return totals;
+    }
+
+    private void apply(String source, LocalDate day, Double amount, boolean wasCounted, boolean isCounted) {
+        if (wasCounted == isCounted || day == null || amount == null) {
+            return;
+        }
+        rollupRepository.increment(day, source, isCounted ? amount : -amount, isCounted ? 1 : -1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.library.library.service;
+
+import com.library.library.client.BookingClient;
+import com.library.library.dto.SeatAvailability;
+import com.library.library.model.Seat;
+import com.library.library.repository.SeatRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seat availability per shift and date range, derived from bookings rather
+ * than from the single global {@link Seat#getStatus()} flag.
+ *
+ * The seat layout is held as one bitmap per section of the seats that can be
+ * booked at all (active and not under maintenance), with each seat at a fixed
+ * bit position. A query asks booking-service for the seats taken on that
+ * shift and dates, which it answers from its occupancy index, sets their bits
+ * in a per-section bitmap and clears them from the bookable one. The layout is
+ * rebuilt lazily after any seat change.
+ */
+@Service
+public class SeatAvailabilityService {
+
+    private final SeatRepository seatRepository;
+    private final BookingClient bookingClient;
+
+    // Bumped on every seat change; a layout built before the bump is stale
+    private final AtomicLong seatsVersion = new AtomicLong();
+    private volatile Layout layout;
+
+    public SeatAvailabilityService(SeatRepository seatRepository, BookingClient bookingClient) {
+        this.seatRepository = seatRepository;
+        this.bookingClient = bookingClient;
+    }
+
+    /**
+     * Drops the cached layout; called whenever seats are added, removed or
+     * change their active or maintenance state.
+     */
+    public void invalidate() {
+        seatsVersion.incrementAndGet();
+    }
+
+    /**
+     * Drops the cached layout once the current transaction commits, so a
+     * layout rebuilt in the meantime cannot keep the old seats.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    public SeatAvailability getAvailability(Long shiftId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date cannot be before start date");
+        }
+        Layout current = layout();
+        Set<Long> occupied = bookingClient.getOccupiedSeatIds(shiftId, startDate, endDate);
+
+        BitSet[] taken = new BitSet[current.sections.size()];
+        for (Long seatId : occupied) {
+            int[] position = current.positions.get(seatId);
+            if (position == null) {
+                continue;
+            }
+            if (taken[position[0]] == null) {
+                taken[position[0]] = new BitSet();
+            }
+            taken[position[0]].set(position[1]);
+        }
+
+        Map<String, SeatAvailability.Section> sections = new LinkedHashMap<>();
+        int total = 0;
+        int available = 0;
+        for (int i = 0; i < current.sections.size(); i++) {
+            SectionLayout section = current.sections.get(i);
+            BitSet free = (BitSet) section.bookable.clone();
+            if (taken[i] != null) {
+                free.andNot(taken[i]);
+            }
+            List<Long> freeSeatIds = new ArrayList<>(free.cardinality());
+            for (int bit = free.nextSetBit(0); bit >= 0; bit = free.nextSetBit(bit + 1)) {
+                freeSeatIds.add(section.seatIds[bit]);
+            }
+            sections.put(section.name, new SeatAvailability.Section(
+                    section.seatIds.length, freeSeatIds.size(), freeSeatIds));
+            total += section.seatIds.length;
+            available += freeSeatIds.size();
+        }
+        return new SeatAvailability(startDate, endDate, shiftId, total, available, sections);
+    }
+
+    private Layout layout() {
+        long version = seatsVersion.get();
+        Layout current = layout;
+        if (current == null || current.version != version) {
+            current = buildLayout(version, seatRepository.findAll());
+            layout = current;
+        }
+        return current;
+    }
+
+    private static Layout buildLayout(long version, List<Seat> seats) {
+        Map<String, List<Seat>> bySection = new TreeMap<>();
+        for (Seat seat : seats) {
+            String section = seat.getSection() != null ? seat.getSection() : "";
+            bySection.computeIfAbsent(section, k -> new ArrayList<>()).add(seat);
+        }
+
+        List<SectionLayout> sections = new ArrayList<>(bySection.size());
+        Map<Long, int[]> positions = new HashMap<>(seats.size() * 2);
+        for (Map.Entry<String, List<Seat>> entry : bySection.entrySet()) {
+            List<Seat> sectionSeats = entry.getValue();
+            sectionSeats.sort(Comparator.comparing(Seat::getId));
+            long[] seatIds = new long[sectionSeats.size()];
+            BitSet bookable = new BitSet(sectionSeats.size());
+            for (int bit = 0; bit < sectionSeats.size(); bit++) {
+                Seat seat = sectionSeats.get(bit);
+                seatIds[bit] = seat.getId();
+                positions.put(seat.getId(), new int[] { sections.size(), bit });
+                if (!Boolean.FALSE.equals(seat.getIsActive()) && seat.getStatus() != Seat.SeatStatus.MAINTENANCE) {
+                    bookable.set(bit);
+                }
+            }
+            sections.add(new SectionLayout(entry.getKey(), seatIds, bookable));
+        }
+        return new Layout(version, sections, positions);
+    }
+
+    private static final class Layout {
+        private final long version;
+        private final List<SectionLayout> sections;
+        // seatId -> { section index, bit position }
+        private final Map<Long, int[]> positions;
+
+        private Layout(long version, List<SectionLayout> sections, Map<Long, int[]> positions) {
+            this.version = version;
+            this.sections = sections;
+            this.positions = positions;
+        }
+    }
+
+    private static final class SectionLayout {
+        private final String name;
+        private final long[] seatIds;
+        private final BitSet bookable;
+
+        private SectionLayout(String name, long[] seatIds, BitSet bookable) {
+            this.name = name;
+            this.seatIds = seatIds;
+            this.bookable = bookable;
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package com.library.library.service;
 
+import com.library.library.dto.SeatStatusUpdate;
 import com.library.library.model.Seat;
 import com.library.library.model.Seat.SeatStatus;
 import com.library.library.repository.SeatRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class SeatService {
 
     private final SeatRepository seatRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SeatAvailabilityService seatAvailability;
+    private final LockerService lockerService;
 
-    public SeatService(SeatRepository seatRepository) {
+    public SeatService(SeatRepository seatRepository, JdbcTemplate jdbcTemplate,
+            SeatAvailabilityService seatAvailability, LockerService lockerService) {
         this.seatRepository = seatRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.seatAvailability = seatAvailability;
+        this.lockerService = lockerService;
     }
 
     @Transactional(readOnly = true)
@@ -28,6 +42,10 @@ public class SeatService {
                 .orElseThrow(() -> new RuntimeException("Seat not found"));
     }
 
+    /**
+     * Seats whose global status is AVAILABLE. Use {@link SeatAvailabilityService}
+     * for what is free on a given shift and date.
+     */
     @Transactional(readOnly = true)
     public List<Seat> getAvailableSeats() {
         return seatRepository.findByStatus(SeatStatus.AVAILABLE);
@@ -35,6 +53,8 @@ public class SeatService {
 
     @Transactional
     public Seat createSeat(Seat seat) {
+        seatAvailability.invalidateAfterCommit();
+        lockerService.syncLockersWithSeatsAfterCommit();
         return seatRepository.save(seat);
     }
 
@@ -53,27 +73,85 @@ public class SeatService {
             seat.setSection(updatedSeat.getSection());
         if (updatedSeat.getIsActive() != null)
             seat.setIsActive(updatedSeat.getIsActive());
+        seatAvailability.invalidateAfterCommit();
         return seatRepository.save(seat);
     }
 
     @Transactional
     public void deleteSeat(Long id) {
+        seatAvailability.invalidateAfterCommit();
         seatRepository.deleteById(id);
     }
 
     @Transactional
     public Seat updateSeatStatus(Long id, SeatStatus status) {
         Seat seat = getSeatById(id);
+        if (isMaintenance(seat.getStatus()) != isMaintenance(status)) {
+            seatAvailability.invalidateAfterCommit();
+        }
         seat.setStatus(status);
         return seatRepository.save(seat);
     }
 
+    /**
+     * Applies many status changes as one JDBC batch. If a seat appears more
+     * than once the last entry wins. Returns the ids of seats that do not exist.
+     */
+    @Transactional
+    public List<Long> updateSeatStatuses(List<SeatStatusUpdate> updates) {
+        Map<Long, SeatStatus> latest = new LinkedHashMap<>();
+        for (SeatStatusUpdate update : updates) {
+            if (update.getSeatId() == null || update.getStatus() == null) {
+                throw new RuntimeException("Each seat status update needs a seatId and a status");
+            }
+            latest.put(update.getSeatId(), update.getStatus());
+        }
+        List<Map.Entry<Long, SeatStatus>> rows = new ArrayList<>(latest.entrySet());
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        // Booking churn leaves the layout alone; only entering or leaving maintenance changes it
+        Set<Long> inMaintenance = new HashSet<>(seatRepository.findIdsWithStatus(latest.keySet(),
+                SeatStatus.MAINTENANCE));
+        for (Map.Entry<Long, SeatStatus> row : rows) {
+            if (inMaintenance.contains(row.getKey()) != isMaintenance(row.getValue())) {
+                seatAvailability.invalidateAfterCommit();
+                break;
+            }
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE seats SET status = ? WHERE id = ?",
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setString(1, row.getValue().name());
+                    ps.setLong(2, row.getKey());
+                });
+
+        // With rewriteBatchedStatements the driver may report SUCCESS_NO_INFO
+        // instead of row counts, so only explicit zero counts mean "not found"
+        List<Long> missing = new ArrayList<>();
+        int[] perRow = counts.length > 0 ? counts[0] : new int[0];
+        for (int i = 0; i < perRow.length; i++) {
+            if (perRow[i] == 0) {
+                missing.add(rows.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
     @Transactional
     public void deleteAllSeats() {
+        seatAvailability.invalidateAfterCommit();
         seatRepository.deleteAll();
     }
 
     public long count() {
         return seatRepository.count();
     }
+
+    private static boolean isMaintenance(SeatStatus status) {
+        return status == SeatStatus.MAINTENANCE;
+    }
 }
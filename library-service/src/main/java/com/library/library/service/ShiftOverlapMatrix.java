@@ -0,0 +1,115 @@
+package com.library.library.service;
+
+import com.library.library.dto.ShiftOverlaps;
+import com.library.library.model.Shift;
+import com.library.library.repository.ShiftRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed overlap matrix of the shifts' opening hours.
+ *
+ * Shifts are compared by their [startTime, endTime) hours; a shift whose end
+ * is not after its start runs past midnight, and one whose start equals its
+ * end covers the whole day. The matrix is rebuilt after every committed shift
+ * change and published with a version number, which booking-service polls so
+ * it can check all conflicting shifts with one lookup.
+ */
+@Component
+public class ShiftOverlapMatrix {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ShiftRepository shiftRepository;
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile ShiftOverlaps current;
+
+    public ShiftOverlapMatrix(ShiftRepository shiftRepository) {
+        this.shiftRepository = shiftRepository;
+    }
+
+    public ShiftOverlaps getOverlaps() {
+        ShiftOverlaps overlaps = current;
+        if (overlaps == null) {
+            overlaps = rebuild();
+        }
+        return overlaps;
+    }
+
+    /**
+     * Rebuilds the matrix once the current transaction commits, so a
+     * rolled-back shift change is never published.
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuild();
+            }
+        });
+    }
+
+    public synchronized ShiftOverlaps rebuild() {
+        List<Shift> shifts = shiftRepository.findAll();
+        int[][][] hours = new int[shifts.size()][][];
+        for (int i = 0; i < shifts.size(); i++) {
+            hours[i] = minuteRanges(shifts.get(i).getStartTime(), shifts.get(i).getEndTime());
+        }
+
+        Map<Long, List<Long>> overlaps = new LinkedHashMap<>();
+        for (int i = 0; i < shifts.size(); i++) {
+            List<Long> conflicting = new ArrayList<>();
+            for (int j = 0; j < shifts.size(); j++) {
+                if (i == j || overlap(hours[i], hours[j])) {
+                    conflicting.add(shifts.get(j).getId());
+                }
+            }
+            Collections.sort(conflicting);
+            overlaps.put(shifts.get(i).getId(), conflicting);
+        }
+        ShiftOverlaps rebuilt = new ShiftOverlaps(versions.incrementAndGet(), overlaps);
+        current = rebuilt;
+        return rebuilt;
+    }
+
+    // A shift as one or two [from, to) minute ranges within a day
+    private static int[][] minuteRanges(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            return new int[0][];
+        }
+        int from = start.getHour() * 60 + start.getMinute();
+        int to = end.getHour() * 60 + end.getMinute();
+        if (from < to) {
+            return new int[][] { { from, to } };
+        }
+        if (from == to) {
+            return new int[][] { { 0, MINUTES_PER_DAY } };
+        }
+        return new int[][] { { from, MINUTES_PER_DAY }, { 0, to } };
+    }
+
+    private static boolean overlap(int[][] a, int[][] b) {
+        for (int[] x : a) {
+            for (int[] y : b) {
+                if (x[0] < y[1] && y[0] < x[1]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
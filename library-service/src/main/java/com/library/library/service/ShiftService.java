@@ -1,5 +1,6 @@
 package com.library.library.service;
 
+import com.library.library.dto.ShiftOverlaps;
 import com.library.library.model.Shift;
 import com.library.library.repository.ShiftRepository;
 import org.springframework.stereotype.Service;
@@ -11,9 +12,11 @@ import java.util.List;
 public class ShiftService {
 
     private final ShiftRepository shiftRepository;
+    private final ShiftOverlapMatrix shiftOverlapMatrix;
 
-    public ShiftService(ShiftRepository shiftRepository) {
+    public ShiftService(ShiftRepository shiftRepository, ShiftOverlapMatrix shiftOverlapMatrix) {
         this.shiftRepository = shiftRepository;
+        this.shiftOverlapMatrix = shiftOverlapMatrix;
     }
 
     @Transactional(readOnly = true)
@@ -21,6 +24,10 @@ public class ShiftService {
         return shiftRepository.findAll();
     }
 
+    public ShiftOverlaps getShiftOverlaps() {
+        return shiftOverlapMatrix.getOverlaps();
+    }
+
     @Transactional(readOnly = true)
     public Shift getShiftById(Long id) {
         return shiftRepository.findById(id)
@@ -29,6 +36,7 @@ public class ShiftService {
 
     @Transactional
     public Shift createShift(Shift shift) {
+        shiftOverlapMatrix.rebuildAfterCommit();
         return shiftRepository.save(shift);
     }
 
@@ -45,6 +53,9 @@ public class ShiftService {
             shift.setBasePrice(updatedShift.getBasePrice());
         if (updatedShift.getDescription() != null)
             shift.setDescription(updatedShift.getDescription());
+        if (updatedShift.getStartTime() != null || updatedShift.getEndTime() != null) {
+            shiftOverlapMatrix.rebuildAfterCommit();
+        }
         return shiftRepository.save(shift);
     }
 
@@ -57,6 +68,7 @@ public class ShiftService {
 
     @Transactional
     public void deleteShift(Long id) {
+        shiftOverlapMatrix.rebuildAfterCommit();
         shiftRepository.deleteById(id);
     }
 }
@@ -0,0 +1,90 @@
+package com.library.library.config;
+
+import com.library.library.model.Locker;
+import com.library.library.repository.LockerBookingRepository;
+import com.library.library.repository.LockerRepository;
+import com.library.library.service.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private LockerRepository lockerRepository;
+
+    @Autowired
+    private LockerBookingRepository lockerBookingRepository;
+
+    @Test
+    void retryIsReplayedWithoutBookingAgain() throws Exception {
+        Locker locker = lockerRepository.save(new Locker("IDEM-REPLAY", 500.0));
+        MvcResult first = mockMvc.perform(book("replay", locker.getId(), 1, "screenshot"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long bookings = lockerBookingRepository.count();
+
+        MvcResult retry = mockMvc.perform(book("replay", locker.getId(), 1, "screenshot"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(lockerBookingRepository.count()).isEqualTo(bookings);
+    }
+
+    @Test
+    void keyReusedWithDifferentRequestIsRejected() throws Exception {
+        Locker locker = lockerRepository.save(new Locker("IDEM-MISMATCH", 500.0));
+        mockMvc.perform(book("mismatch", locker.getId(), 1, "screenshot")).andExpect(status().isOk());
+
+        mockMvc.perform(book("mismatch", locker.getId(), 2, "screenshot"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(book("mismatch", locker.getId(), 1, "other screenshot"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void keyHeldByARunningRequestIsRefused() throws Exception {
+        Locker locker = lockerRepository.save(new Locker("IDEM-PENDING", 500.0));
+        assertThat(store.begin("POST /api/lockers/book", "pending", null)).isNotNull();
+
+        mockMvc.perform(book("pending", locker.getId(), 1, "screenshot")).andExpect(status().isConflict());
+    }
+
+    @Test
+    void failedRequestReleasesItsKey() throws Exception {
+        Locker locker = lockerRepository.save(new Locker("IDEM-FAILED", 500.0));
+        mockMvc.perform(book("failed", -1L, 1, "screenshot")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(book("failed", locker.getId(), 1, "screenshot")).andExpect(status().isOk());
+    }
+
+    private static MockMultipartHttpServletRequestBuilder book(String key, Long lockerId, int months,
+            String screenshot) {
+        return (MockMultipartHttpServletRequestBuilder) multipart("/api/lockers/book")
+                .part(new MockPart("paymentScreenshot", "payment.png", screenshot.getBytes()))
+                .param("userId", "3000")
+                .param("lockerId", String.valueOf(lockerId))
+                .param("durationMonths", String.valueOf(months))
+                .header(IdempotencyFilter.HEADER, key);
+    }
+}
@@ -0,0 +1,79 @@
+package com.library.library.service;
+
+import com.library.library.dto.LockerBookingView;
+import com.library.library.model.Locker;
+import com.library.library.model.LockerBooking;
+import com.library.library.repository.LockerBookingRepository;
+import com.library.library.repository.LockerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LockerServiceBookingListTest {
+
+    @Autowired
+    private LockerService lockerService;
+
+    @Autowired
+    private LockerRepository lockerRepository;
+
+    @Autowired
+    private LockerBookingRepository lockerBookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void userBookingsAreListedWithOneSelectAndNoScreenshots() {
+        seedBookings(2000L, "LIST-USER-");
+        List<LockerBookingView> views = lockerService.getUserBookings(2000L);
+
+        assertThat(views).hasSize(3).allMatch(LockerBookingView::isHasPaymentScreenshot);
+        assertSingleProjectionQuery();
+    }
+
+    @Test
+    void allBookingsAreListedWithOneSelectAndNoScreenshots() {
+        seedBookings(2001L, "LIST-ALL-");
+        List<LockerBookingView> views = lockerService.getAllBookings();
+
+        assertThat(views).hasSizeGreaterThanOrEqualTo(3);
+        assertSingleProjectionQuery();
+    }
+
+    // Three bookings with a payment screenshot each, then a clean slate of statistics
+    private void seedBookings(long userId, String lockerPrefix) {
+        for (int i = 0; i < 3; i++) {
+            Locker locker = lockerRepository.save(new Locker(lockerPrefix + i, 500.0));
+            LockerBooking booking = new LockerBooking(userId, locker, LocalDate.now(),
+                    LocalDate.now().plusMonths(1), 500.0);
+            booking.setPaymentScreenshot("/9j/" + "A".repeat(4096));
+            lockerBookingRepository.save(booking);
+        }
+        statistics.clear();
+    }
+
+    // Entities would carry the screenshot column; the projection never loads one
+    private void assertSingleProjectionQuery() {
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(LockerBooking.class.getName()).getLoadCount()).isZero();
+    }
+}
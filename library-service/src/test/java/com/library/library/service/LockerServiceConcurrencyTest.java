@@ -0,0 +1,76 @@
+package com.library.library.service;
+
+import com.library.library.model.Locker;
+import com.library.library.model.LockerBooking;
+import com.library.library.repository.LockerBookingRepository;
+import com.library.library.repository.LockerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LockerServiceConcurrencyTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private LockerService lockerService;
+
+    @Autowired
+    private LockerRepository lockerRepository;
+
+    @Autowired
+    private LockerBookingRepository lockerBookingRepository;
+
+    @Test
+    void concurrentBookingsOfOneLockerHaveExactlyOneWinner() throws Exception {
+        Locker locker = lockerRepository.save(new Locker("STRESS-1", 500.0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LockerBooking>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                long userId = 1000 + i;
+                Callable<LockerBooking> booking = () -> {
+                    start.await();
+                    return lockerService.bookLocker(userId, locker.getId(), 1, null);
+                };
+                results.add(executor.submit(booking));
+            }
+            start.countDown();
+
+            int winners = 0;
+            List<String> errors = new ArrayList<>();
+            for (Future<LockerBooking> result : results) {
+                try {
+                    assertThat(result.get(30, TimeUnit.SECONDS)).isNotNull();
+                    winners++;
+                } catch (ExecutionException e) {
+                    errors.add(e.getCause().getMessage());
+                }
+            }
+
+            assertThat(winners).isEqualTo(1);
+            assertThat(errors).hasSize(CALLERS - 1).allMatch("Locker is not available"::equals);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(lockerRepository.findById(locker.getId()).orElseThrow().getStatus())
+                .isEqualTo(Locker.LockerStatus.BOOKED);
+        assertThat(lockerBookingRepository.findByLockerId(locker.getId())).hasSize(1);
+    }
+}